@@ -0,0 +1,74 @@
+package com.cozycorner.restaurant.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Tables that moved from IDENTITY to pooled sequences keep their existing ids, so on
+ * PostgreSQL the sequence is pushed past the current maximum before anything is inserted.
+ * This runs before the entity manager factory is built (and so before the web server
+ * takes requests): the sequence is created here if it does not exist yet, with the
+ * increment Hibernate expects, and schema update then leaves it alone. Fresh schemas
+ * (and H2) need no adjustment.
+ */
+@Component
+public class IdSequenceInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // Must match allocationSize of the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    // sequence name -> table whose ids it generates
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "menu_items_seq", "menu_items",
+            "orders_seq", "orders",
+            "order_items_seq", "order_items"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        alignSequences();
+    }
+
+    public void alignSequences() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(database)) {
+            return;
+        }
+        SEQUENCES.forEach((sequence, table) -> {
+            Boolean tableExists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+            if (!Boolean.TRUE.equals(tableExists)) {
+                return;
+            }
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequence + "', GREATEST((SELECT COALESCE(MAX(id), 1) FROM " + table + "), " +
+                    "(SELECT last_value FROM " + sequence + ")))", Long.class);
+            log.debug("Sequence {} aligned to {}", sequence, value);
+        });
+    }
+
+    /**
+     * Makes the entity manager factory wait for the sequences to be aligned.
+     */
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependency() {
+            super(IdSequenceInitializer.class);
+        }
+    }
+}
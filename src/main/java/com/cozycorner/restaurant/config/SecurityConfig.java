@@ -1,8 +1,12 @@
 package com.cozycorner.restaurant.config;
 
+import com.cozycorner.restaurant.security.BoundedPasswordEncoder;
 import com.cozycorner.restaurant.security.JwtAuthenticationEntryPoint;
 import com.cozycorner.restaurant.security.JwtAuthenticationFilter;
+import com.cozycorner.restaurant.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,9 +17,8 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -38,9 +41,29 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password-hashing.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${app.security.password-hashing.queue-capacity:32}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${app.security.password-hashing.timeout-ms:5000}")
+    private long passwordHashingTimeoutMs;
+
+    // BCrypt runs on its own bounded pool (half the cores unless configured) so login bursts get a 429 instead of every worker thread
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder() {
+        int threads = passwordHashingThreads > 0 ? passwordHashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(bcryptStrength, threads, passwordHashingQueueCapacity, passwordHashingTimeoutMs, meterRegistry);
     }
 
     @Bean
@@ -48,6 +71,10 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Hashes below app.security.bcrypt.strength are rehashed on the next successful login
+        if (userDetailsService instanceof UserDetailsPasswordService) {
+            authProvider.setUserDetailsPasswordService((UserDetailsPasswordService) userDetailsService);
+        }
         return authProvider;
     }
 
@@ -94,6 +121,8 @@ public class SecurityConfig {
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // After the JWT filter so limits can depend on who the caller is
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         // H2 Console specific configuration
         http.headers().frameOptions().disable();
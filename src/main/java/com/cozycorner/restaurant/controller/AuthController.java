@@ -0,0 +1,39 @@
+package com.cozycorner.restaurant.controller;
+
+import com.cozycorner.restaurant.security.JwtTokenUtil;
+import com.cozycorner.restaurant.security.TokenRevocationService;
+import com.cozycorner.restaurant.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/auth")
+@CrossOrigin(origins = "*")
+public class AuthController {
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // Revoke the presented token; it is rejected from the next request on, not when it expires
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Bearer token required");
+        }
+        VerifiedToken token;
+        try {
+            token = jwtTokenUtil.verify(authorization.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired token");
+        }
+        tokenRevocationService.revoke(token);
+        return ResponseEntity.noContent().build();
+    }
+}
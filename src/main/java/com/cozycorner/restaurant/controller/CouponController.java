@@ -0,0 +1,27 @@
+package com.cozycorner.restaurant.controller;
+
+import com.cozycorner.restaurant.dto.BulkCouponRequest;
+import com.cozycorner.restaurant.dto.BulkCouponResult;
+import com.cozycorner.restaurant.service.CouponGenerationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/coupons")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class CouponController {
+
+    @Autowired
+    private CouponGenerationService couponGenerationService;
+
+    // Admin endpoint - Create a batch of coupons with the same terms and unique random codes
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCouponResult> generateCoupons(@Valid @RequestBody BulkCouponRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(couponGenerationService.generate(request));
+    }
+}
@@ -0,0 +1,55 @@
+package com.cozycorner.restaurant.controller;
+
+import com.cozycorner.restaurant.dto.DeliveryPosition;
+import com.cozycorner.restaurant.dto.DriverStatusRequest;
+import com.cozycorner.restaurant.dto.LocationUpdateRequest;
+import com.cozycorner.restaurant.service.DeliveryLocationService;
+import com.cozycorner.restaurant.service.DispatchService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.Principal;
+
+@RestController
+@CrossOrigin(origins = "*")
+public class DeliveryTrackingController {
+
+    @Autowired
+    private DeliveryLocationService deliveryLocationService;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    // Driver endpoint - Report position and shift status between deliveries, for dispatch
+    @PostMapping("/driver/location")
+    @PreAuthorize("hasRole('DRIVER')")
+    public ResponseEntity<Void> updateDriverLocation(Principal principal, @Valid @RequestBody DriverStatusRequest request) {
+        dispatchService.reportPosition(principal.getName(), request.getLatitude(), request.getLongitude(), request.getOnShift());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Driver endpoint - Report the current position for an assigned delivery (buffered, written in batches)
+    @PostMapping("/driver/deliveries/{id}/location")
+    @PreAuthorize("hasRole('DRIVER')")
+    public ResponseEntity<DeliveryPosition> updateLocation(Principal principal,
+                                                           @PathVariable Long id,
+                                                           @Valid @RequestBody LocationUpdateRequest request) {
+        DeliveryPosition position = deliveryLocationService.record(id, principal.getName(),
+                request.getLatitude(), request.getLongitude(), request.getRecordedAt());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(position);
+    }
+
+    // Driver/Admin endpoint - Latest known position of a delivery (served from memory while tracked)
+    @GetMapping("/delivery/{id}/location")
+    @PreAuthorize("hasAnyRole('DRIVER', 'ADMIN')")
+    public ResponseEntity<DeliveryPosition> getLocation(@PathVariable Long id) {
+        return deliveryLocationService.getPosition(id)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Delivery not found"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.cozycorner.restaurant.controller;
+
+import com.cozycorner.restaurant.dto.DispatchRequest;
+import com.cozycorner.restaurant.dto.DispatchResult;
+import com.cozycorner.restaurant.dto.DriverCandidate;
+import com.cozycorner.restaurant.service.DispatchService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/dispatch")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class DispatchController {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    // Admin endpoint - Nearest available drivers to a point (served from the in-memory index)
+    @GetMapping("/nearest")
+    public ResponseEntity<List<DriverCandidate>> getNearestDrivers(@RequestParam double latitude,
+                                                                   @RequestParam double longitude,
+                                                                   @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(dispatchService.findNearest(latitude, longitude, Math.max(1, Math.min(limit, 50))));
+    }
+
+    // Admin endpoint - Assign the order's delivery to the nearest available driver
+    @PostMapping("/orders/{orderId}")
+    public ResponseEntity<DispatchResult> dispatchOrder(@PathVariable Long orderId,
+                                                        @Valid @RequestBody DispatchRequest request) {
+        return ResponseEntity.ok(dispatchService.assignNearest(orderId, request.getLatitude(), request.getLongitude()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.cozycorner.restaurant.controller;
+
+import com.cozycorner.restaurant.dto.KitchenTicket;
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.service.KitchenQueueService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/kitchen")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class KitchenController {
+
+    @Autowired
+    private KitchenQueueService kitchenQueueService;
+
+    // Admin endpoint - Open orders in the order the kitchen should work them (served from memory)
+    @GetMapping("/queue")
+    public ResponseEntity<List<KitchenTicket>> getQueue() {
+        return ResponseEntity.ok(kitchenQueueService.getQueue());
+    }
+
+    // Admin endpoint - Queue for one station, showing only the lines that station cooks
+    @GetMapping("/queue/{station}")
+    public ResponseEntity<List<KitchenTicket>> getStationQueue(@PathVariable MenuItem.Category station) {
+        return ResponseEntity.ok(kitchenQueueService.getStationQueue(station));
+    }
+}
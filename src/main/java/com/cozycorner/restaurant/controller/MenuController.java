@@ -1,13 +1,34 @@
 package com.cozycorner.restaurant.controller;
 
+import com.cozycorner.restaurant.dto.BulkImportResult;
+import com.cozycorner.restaurant.dto.KeysetPage;
+import com.cozycorner.restaurant.dto.MenuDelta;
+import com.cozycorner.restaurant.dto.MenuFacetResponse;
+import com.cozycorner.restaurant.dto.MenuFilterCriteria;
 import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.event.MenuItemChangedEvent;
 import com.cozycorner.restaurant.repository.MenuItemRepository;
+import com.cozycorner.restaurant.service.MenuAdminService;
+import com.cozycorner.restaurant.service.MenuCacheService;
+import com.cozycorner.restaurant.service.MenuDeltaPublisher;
+import com.cozycorner.restaurant.service.MenuFacetIndex;
+import com.cozycorner.restaurant.service.MenuImportService;
+import com.cozycorner.restaurant.service.MenuResponseCache;
+import com.cozycorner.restaurant.service.MenuSearchIndex;
+import com.cozycorner.restaurant.service.MenuSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,36 +37,88 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class MenuController {
 
+    // Lets clients subscribed to /topic/menu know which delta version the payload corresponds to
+    private static final String MENU_VERSION_HEADER = "X-Menu-Version";
+
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    @Autowired
+    private MenuResponseCache menuResponseCache;
+
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    @Autowired
+    private MenuFacetIndex menuFacetIndex;
+
+    @Autowired
+    private MenuAdminService menuAdminService;
+
+    @Autowired
+    private MenuImportService menuImportService;
+
+    @Autowired
+    private MenuDeltaPublisher menuDeltaPublisher;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Public endpoint - Get all available menu items
     @GetMapping
-    public ResponseEntity<List<MenuItem>> getAllMenuItems() {
-        List<MenuItem> menuItems = menuItemRepository.findAllAvailableItems();
-        return ResponseEntity.ok(menuItems);
+    public ResponseEntity<byte[]> getAllMenuItems(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MenuSnapshot snapshot = menuCacheService.getSnapshot();
+        return renderedResponse(snapshot, menuResponseCache.render(snapshot, "all", snapshot.getAvailableItems()), acceptEncoding);
     }
 
     // Public endpoint - Get menu items by category
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<MenuItem>> getMenuItemsByCategory(@PathVariable MenuItem.Category category) {
-        List<MenuItem> menuItems = menuItemRepository.findAvailableItemsByCategory(category);
-        return ResponseEntity.ok(menuItems);
+    public ResponseEntity<byte[]> getMenuItemsByCategory(@PathVariable MenuItem.Category category,
+                                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MenuSnapshot snapshot = menuCacheService.getSnapshot();
+        return renderedResponse(snapshot, menuResponseCache.render(snapshot, "category:" + category.name(), snapshot.getItemsByCategory(category)), acceptEncoding);
     }
 
     // Public endpoint - Search menu items
     @GetMapping("/search")
-    public ResponseEntity<List<MenuItem>> searchMenuItems(@RequestParam String query) {
-        List<MenuItem> menuItems = menuItemRepository.searchAvailableItems(query);
-        return ResponseEntity.ok(menuItems);
+    public ResponseEntity<List<MenuItem>> searchMenuItems(@RequestParam String query,
+                                                          @RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "50") int size) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        int pageNumber = Math.max(0, Math.min(page, Integer.MAX_VALUE / pageSize));
+        MenuSearchIndex.SearchResult result = menuSearchIndex.search(query, pageNumber, pageSize);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(result.getTotal()))
+                .body(result.getItems());
+    }
+
+    // Public endpoint - Combined filters (category, dietary flags, price, calories, preparation time) with facet counts
+    @GetMapping("/filter")
+    public ResponseEntity<MenuFacetResponse> filterMenuItems(@ModelAttribute MenuFilterCriteria criteria,
+                                                             @RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "50") int size) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        return ResponseEntity.ok(menuFacetIndex.query(criteria, Math.max(0, page), pageSize));
+    }
+
+    // Public endpoint - Menu deltas after the given version, for clients resuming a /topic/menu subscription
+    @GetMapping("/deltas")
+    public ResponseEntity<List<MenuDelta>> getMenuDeltas(@RequestParam long since) {
+        return menuDeltaPublisher.deltasSince(since)
+                .map(ResponseEntity::ok)
+                // History cannot vouch for that version (too old, or from before a restart); the client has to refetch /menu
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).build());
     }
 
     // Public endpoint - Get single menu item
     @GetMapping("/{id}")
     public ResponseEntity<MenuItem> getMenuItem(@PathVariable Long id) {
-        Optional<MenuItem> menuItem = menuItemRepository.findById(id);
-        if (menuItem.isPresent() && menuItem.get().getIsAvailable()) {
-            return ResponseEntity.ok(menuItem.get());
+        MenuItem menuItem = menuCacheService.getSnapshot().getItem(id);
+        if (menuItem != null) {
+            return ResponseEntity.ok(menuItem);
         }
         return ResponseEntity.notFound().build();
     }
@@ -55,9 +128,24 @@ public class MenuController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<MenuItem> addMenuItem(@Valid @RequestBody MenuItem menuItem) {
         MenuItem savedMenuItem = menuItemRepository.save(menuItem);
+        eventPublisher.publishEvent(new MenuItemChangedEvent(savedMenuItem, MenuItemChangedEvent.ChangeType.CREATED));
         return ResponseEntity.ok(savedMenuItem);
     }
 
+    // Admin endpoint - Bulk upsert from a JSON array of menu items
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResult> bulkImportJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(menuImportService.importJson(body));
+    }
+
+    // Admin endpoint - Bulk upsert from CSV (header row with menu item field names)
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResult> bulkImportCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(menuImportService.importCsv(body));
+    }
+
     // Admin endpoint - Update menu item
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -77,6 +165,7 @@ public class MenuController {
             existingItem.setCalories(menuItemDetails.getCalories());
             
             MenuItem updatedMenuItem = menuItemRepository.save(existingItem);
+            eventPublisher.publishEvent(new MenuItemChangedEvent(updatedMenuItem, MenuItemChangedEvent.ChangeType.UPDATED));
             return ResponseEntity.ok(updatedMenuItem);
         }
         return ResponseEntity.notFound().build();
@@ -90,24 +179,53 @@ public class MenuController {
         if (menuItem.isPresent()) {
             MenuItem existingItem = menuItem.get();
             existingItem.setIsAvailable(false);
-            menuItemRepository.save(existingItem);
+            MenuItem deletedMenuItem = menuItemRepository.save(existingItem);
+            eventPublisher.publishEvent(new MenuItemChangedEvent(deletedMenuItem, MenuItemChangedEvent.ChangeType.DELETED));
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
 
-    // Admin endpoint - Get all menu items (including unavailable ones)
+    // Admin endpoint - Get all menu items (including unavailable ones), keyset paginated by id or updatedAt
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<MenuItem>> getAllMenuItemsForAdmin() {
-        List<MenuItem> menuItems = menuItemRepository.findAll();
-        return ResponseEntity.ok(menuItems);
+    public ResponseEntity<KeysetPage<MenuItem>> getAllMenuItemsForAdmin(@RequestParam(defaultValue = "ID") MenuAdminService.SortKey sort,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(defaultValue = "100") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, 500));
+        return ResponseEntity.ok(menuAdminService.findPage(sort, cursor, pageSize));
+    }
+
+    // Admin endpoint - Stream the whole catalog as one JSON array straight from a database cursor
+    @GetMapping("/admin/all/stream")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllMenuItemsForAdmin() {
+        StreamingResponseBody body = menuAdminService::streamAll;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     // Public endpoint - Get vegetarian items
     @GetMapping("/vegetarian")
-    public ResponseEntity<List<MenuItem>> getVegetarianItems() {
-        List<MenuItem> menuItems = menuItemRepository.findVegetarianItems();
-        return ResponseEntity.ok(menuItems);
+    public ResponseEntity<byte[]> getVegetarianItems(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MenuSnapshot snapshot = menuCacheService.getSnapshot();
+        return renderedResponse(snapshot, menuResponseCache.render(snapshot, "vegetarian", snapshot.getVegetarianItems()), acceptEncoding);
+    }
+
+    // Writes pre-rendered JSON as-is; Spring answers 304 itself when If-None-Match / If-Modified-Since match
+    private ResponseEntity<byte[]> renderedResponse(MenuSnapshot snapshot, MenuResponseCache.RenderedMenu rendered, String acceptEncoding) {
+        boolean gzip = rendered.hasGzipBody() && acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(gzip ? rendered.getGzipEtag() : rendered.getEtag())
+                .lastModified(rendered.getLastModified())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(MENU_VERSION_HEADER, String.valueOf(snapshot.getVersion()));
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return builder.body(rendered.getGzipBody());
+        }
+        return builder.body(rendered.getBody());
     }
 }
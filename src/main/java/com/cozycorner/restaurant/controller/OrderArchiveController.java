@@ -0,0 +1,31 @@
+package com.cozycorner.restaurant.controller;
+
+import com.cozycorner.restaurant.dto.ArchiveRunResult;
+import com.cozycorner.restaurant.service.OrderArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/orders/archive")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class OrderArchiveController {
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    // Admin endpoint - Archive finished orders now instead of waiting for the nightly run
+    @PostMapping("/run")
+    public ResponseEntity<ArchiveRunResult> runArchive() {
+        return ResponseEntity.ok(orderArchiveService.archive());
+    }
+
+    // Admin endpoint - Result of the last archive run (how much the hot table shrank)
+    @GetMapping("/status")
+    public ResponseEntity<ArchiveRunResult> getLastRun() {
+        ArchiveRunResult lastRun = orderArchiveService.getLastRun();
+        return lastRun == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(lastRun);
+    }
+}
@@ -0,0 +1,90 @@
+package com.cozycorner.restaurant.controller;
+
+import com.cozycorner.restaurant.dto.KeysetPage;
+import com.cozycorner.restaurant.dto.OrderSummary;
+import com.cozycorner.restaurant.dto.PlaceOrderRequest;
+import com.cozycorner.restaurant.entity.Order;
+import com.cozycorner.restaurant.entity.User;
+import com.cozycorner.restaurant.repository.UserRepository;
+import com.cozycorner.restaurant.service.OrderPlacementService;
+import com.cozycorner.restaurant.service.OrderQueryService;
+import com.cozycorner.restaurant.service.OrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/orders")
+@CrossOrigin(origins = "*")
+public class OrderController {
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderPlacementService orderPlacementService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Customer endpoint - Place an order; a retry with the same Idempotency-Key gets the original order back
+    @PostMapping
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<OrderSummary> placeOrder(Principal principal,
+                                                   @Valid @RequestBody PlaceOrderRequest request,
+                                                   @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Optional<User> customer = userRepository.findByEmail(principal.getName());
+        if (customer.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        OrderPlacementService.Placement placement = orderPlacementService.placeOrder(customer.get(), request, idempotencyKey);
+        if (placement.isReplayed()) {
+            return ResponseEntity.ok()
+                    .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                    .body(placement.getOrder());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(placement.getOrder());
+    }
+
+    // Customer endpoint - Get the authenticated customer's order history, newest first, one page at a time
+    @GetMapping("/my-orders")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<KeysetPage<OrderSummary>> getMyOrders(Principal principal,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "20") int limit) {
+        Optional<User> customer = userRepository.findByEmail(principal.getName());
+        if (customer.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        int pageSize = Math.max(1, Math.min(limit, 100));
+        return ResponseEntity.ok(orderQueryService.findCustomerOrderHistory(customer.get().getId(), cursor, pageSize));
+    }
+
+    // Admin endpoint - Get orders that still need attention (pending, confirmed, preparing)
+    @GetMapping("/pending")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<OrderSummary>> getPendingOrders() {
+        return ResponseEntity.ok(orderQueryService.findPendingOrders());
+    }
+
+    // Admin endpoint - Move an order to a new status
+    @PutMapping("/{id}/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> updateOrderStatus(@PathVariable Long id, @RequestParam Order.OrderStatus status) {
+        orderService.updateStatus(id, status);
+        return ResponseEntity.noContent().build();
+    }
+}
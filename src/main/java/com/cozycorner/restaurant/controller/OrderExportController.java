@@ -0,0 +1,69 @@
+package com.cozycorner.restaurant.controller;
+
+import com.cozycorner.restaurant.service.OrderExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/admin/orders/export")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class OrderExportController {
+
+    private static final int MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Value("${app.orders.export.timeout-minutes:60}")
+    private long exportTimeoutMinutes;
+
+    // Admin endpoint - Stream orders and line items for a date range (inclusive) as CSV or JSON lines
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                              @RequestParam(defaultValue = "CSV") OrderExportService.Format format,
+                                                              @RequestParam(defaultValue = "false") boolean gzip,
+                                                              HttpServletRequest request) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date range must be between 1 and " + MAX_RANGE_DAYS + " days");
+        }
+
+        String filename = "orders-" + from + "_" + to + "." + format.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> orderExportService.export(from, to, format, gzip, out);
+        // A year of orders takes far longer to stream than the default async request timeout
+        // (30s), which would cut the file off; the longer timeout applies to this response only
+        long timeoutMs = TimeUnit.MINUTES.toMillis(exportTimeoutMinutes);
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(OrderExportController.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        ((AsyncWebRequest) webRequest).setTimeout(timeoutMs);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
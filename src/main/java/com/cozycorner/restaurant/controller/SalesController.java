@@ -0,0 +1,62 @@
+package com.cozycorner.restaurant.controller;
+
+import com.cozycorner.restaurant.dto.SalesSummary;
+import com.cozycorner.restaurant.service.SalesRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/sales")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class SalesController {
+
+    private static final int MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    // Admin endpoint - Today's delivered orders, revenue and average ticket
+    @GetMapping("/today")
+    public ResponseEntity<SalesSummary> getTodaysSales() {
+        return ResponseEntity.ok(salesRollupService.getDailySummary(LocalDate.now()));
+    }
+
+    // Admin endpoint - Day-by-day sales for a date range (inclusive)
+    @GetMapping("/daily")
+    public ResponseEntity<List<SalesSummary>> getDailySales(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        checkRange(from, to);
+        return ResponseEntity.ok(salesRollupService.getDailySummaries(from, to));
+    }
+
+    // Admin endpoint - Hour-by-hour sales for one day
+    @GetMapping("/hourly")
+    public ResponseEntity<List<SalesSummary>> getHourlySales(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(salesRollupService.getHourlySummaries(date));
+    }
+
+    // Admin endpoint - Rebuild rollups for a date range from the orders table
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<Map<String, Integer>> backfillRollups(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        checkRange(from, to);
+        return ResponseEntity.ok(Map.of("days", salesRollupService.backfill(from, to)));
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date range must be between 1 and " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
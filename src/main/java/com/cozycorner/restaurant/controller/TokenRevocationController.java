@@ -0,0 +1,24 @@
+package com.cozycorner.restaurant.controller;
+
+import com.cozycorner.restaurant.security.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/tokens")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class TokenRevocationController {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // Admin endpoint - Force-revoke a token by its ID (jti claim), e.g. after it leaked
+    @PostMapping("/{jti}/revoke")
+    public ResponseEntity<Void> revokeToken(@PathVariable String jti) {
+        tokenRevocationService.revoke(jti);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.cozycorner.restaurant.dto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ArchiveRunResult {
+
+    private LocalDateTime cutoff;
+    private LocalDateTime startedAt;
+    private int batches;
+    private final Map<String, Integer> rowsArchived = new LinkedHashMap<>();
+    private long hotOrdersBefore;
+    private long hotOrdersAfter;
+    private long archivedOrdersTotal;
+    private long elapsedMillis;
+
+    public void addRows(Map<String, Integer> moved) {
+        moved.forEach((table, rows) -> rowsArchived.merge(table, rows, Integer::sum));
+    }
+
+    public LocalDateTime getCutoff() { return cutoff; }
+    public void setCutoff(LocalDateTime cutoff) { this.cutoff = cutoff; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public int getBatches() { return batches; }
+    public void setBatches(int batches) { this.batches = batches; }
+
+    // Rows moved per hot table (orders, order_items, payments, deliveries)
+    public Map<String, Integer> getRowsArchived() { return rowsArchived; }
+
+    public long getHotOrdersBefore() { return hotOrdersBefore; }
+    public void setHotOrdersBefore(long hotOrdersBefore) { this.hotOrdersBefore = hotOrdersBefore; }
+
+    public long getHotOrdersAfter() { return hotOrdersAfter; }
+    public void setHotOrdersAfter(long hotOrdersAfter) { this.hotOrdersAfter = hotOrdersAfter; }
+
+    public long getArchivedOrdersTotal() { return archivedOrdersTotal; }
+    public void setArchivedOrdersTotal(long archivedOrdersTotal) { this.archivedOrdersTotal = archivedOrdersTotal; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    // Share of the hot orders table this run moved out
+    public double getHotSetReductionPercent() {
+        return hotOrdersBefore == 0 ? 0 : 100.0 * (hotOrdersBefore - hotOrdersAfter) / hotOrdersBefore;
+    }
+}
@@ -0,0 +1,89 @@
+package com.cozycorner.restaurant.dto;
+
+import com.cozycorner.restaurant.entity.Coupon;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Body of {@code POST /coupons/bulk}: how many codes to create and the terms they all
+ * share. Codes are {@code prefix} followed by {@code codeLength} random characters.
+ */
+public class BulkCouponRequest {
+
+    @NotNull(message = "Count is required")
+    @Min(value = 1, message = "Count must be at least 1")
+    @Max(value = 500000, message = "Count must be at most 500000")
+    private Integer count;
+
+    @Pattern(regexp = "[A-Z0-9]{0,4}", message = "Prefix must be up to 4 upper-case letters or digits")
+    private String prefix = "";
+
+    @Min(value = 6, message = "Code length must be at least 6")
+    @Max(value = 8, message = "Code length must be at most 8")
+    private int codeLength = 8;
+
+    @Size(max = 255, message = "Description must be at most 255 characters")
+    private String description;
+
+    @NotNull(message = "Discount type is required")
+    private Coupon.DiscountType discountType;
+
+    @NotNull(message = "Discount value is required")
+    @PositiveOrZero(message = "Discount value must be positive")
+    private BigDecimal discountValue;
+
+    @PositiveOrZero(message = "Minimum order amount must be positive")
+    private BigDecimal minimumOrderAmount;
+
+    @PositiveOrZero(message = "Maximum discount amount must be positive")
+    private BigDecimal maximumDiscountAmount;
+
+    @Min(value = 1, message = "Usage limit must be at least 1")
+    private Integer usageLimit = 1;
+
+    @NotNull(message = "Valid from is required")
+    private LocalDateTime validFrom;
+
+    @NotNull(message = "Valid until is required")
+    private LocalDateTime validUntil;
+
+    public Integer getCount() { return count; }
+    public void setCount(Integer count) { this.count = count; }
+
+    public String getPrefix() { return prefix; }
+    public void setPrefix(String prefix) { this.prefix = prefix; }
+
+    public int getCodeLength() { return codeLength; }
+    public void setCodeLength(int codeLength) { this.codeLength = codeLength; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Coupon.DiscountType getDiscountType() { return discountType; }
+    public void setDiscountType(Coupon.DiscountType discountType) { this.discountType = discountType; }
+
+    public BigDecimal getDiscountValue() { return discountValue; }
+    public void setDiscountValue(BigDecimal discountValue) { this.discountValue = discountValue; }
+
+    public BigDecimal getMinimumOrderAmount() { return minimumOrderAmount; }
+    public void setMinimumOrderAmount(BigDecimal minimumOrderAmount) { this.minimumOrderAmount = minimumOrderAmount; }
+
+    public BigDecimal getMaximumDiscountAmount() { return maximumDiscountAmount; }
+    public void setMaximumDiscountAmount(BigDecimal maximumDiscountAmount) { this.maximumDiscountAmount = maximumDiscountAmount; }
+
+    public Integer getUsageLimit() { return usageLimit; }
+    public void setUsageLimit(Integer usageLimit) { this.usageLimit = usageLimit; }
+
+    public LocalDateTime getValidFrom() { return validFrom; }
+    public void setValidFrom(LocalDateTime validFrom) { this.validFrom = validFrom; }
+
+    public LocalDateTime getValidUntil() { return validUntil; }
+    public void setValidUntil(LocalDateTime validUntil) { this.validUntil = validUntil; }
+}
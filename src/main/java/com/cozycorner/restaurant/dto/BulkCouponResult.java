@@ -0,0 +1,27 @@
+package com.cozycorner.restaurant.dto;
+
+import java.util.List;
+
+public class BulkCouponResult {
+
+    private final int generated;
+    private final int regenerated;
+    private final long elapsedMillis;
+    private final List<String> codes;
+
+    public BulkCouponResult(int generated, int regenerated, long elapsedMillis, List<String> codes) {
+        this.generated = generated;
+        this.regenerated = regenerated;
+        this.elapsedMillis = elapsedMillis;
+        this.codes = codes;
+    }
+
+    public int getGenerated() { return generated; }
+
+    // Random codes that were drawn again because they already existed
+    public int getRegenerated() { return regenerated; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public List<String> getCodes() { return codes; }
+}
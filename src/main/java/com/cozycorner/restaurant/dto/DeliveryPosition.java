@@ -0,0 +1,30 @@
+package com.cozycorner.restaurant.dto;
+
+import java.time.Instant;
+
+/**
+ * Latest known position of a delivery's driver. Coordinates are null until the driver
+ * has reported a position.
+ */
+public class DeliveryPosition {
+
+    private final Long deliveryId;
+    private final Double latitude;
+    private final Double longitude;
+    private final Instant recordedAt;
+
+    public DeliveryPosition(Long deliveryId, Double latitude, Double longitude, Instant recordedAt) {
+        this.deliveryId = deliveryId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.recordedAt = recordedAt;
+    }
+
+    public Long getDeliveryId() { return deliveryId; }
+
+    public Double getLatitude() { return latitude; }
+
+    public Double getLongitude() { return longitude; }
+
+    public Instant getRecordedAt() { return recordedAt; }
+}
@@ -0,0 +1,44 @@
+package com.cozycorner.restaurant.dto;
+
+import java.time.Instant;
+
+/**
+ * Frame pushed on an order's tracking topic: where the driver is and when they are
+ * expected. {@code remainingKm} is null when the delivery has no destination on record,
+ * in which case {@code estimatedArrival} is the one planned for the delivery, if any.
+ */
+public class DeliveryTrackingUpdate {
+
+    private final Long orderId;
+    private final Long deliveryId;
+    private final double latitude;
+    private final double longitude;
+    private final Instant recordedAt;
+    private final Double remainingKm;
+    private final Instant estimatedArrival;
+
+    public DeliveryTrackingUpdate(Long orderId, Long deliveryId, double latitude, double longitude, Instant recordedAt,
+                                  Double remainingKm, Instant estimatedArrival) {
+        this.orderId = orderId;
+        this.deliveryId = deliveryId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.recordedAt = recordedAt;
+        this.remainingKm = remainingKm;
+        this.estimatedArrival = estimatedArrival;
+    }
+
+    public Long getOrderId() { return orderId; }
+
+    public Long getDeliveryId() { return deliveryId; }
+
+    public double getLatitude() { return latitude; }
+
+    public double getLongitude() { return longitude; }
+
+    public Instant getRecordedAt() { return recordedAt; }
+
+    public Double getRemainingKm() { return remainingKm; }
+
+    public Instant getEstimatedArrival() { return estimatedArrival; }
+}
@@ -0,0 +1,29 @@
+package com.cozycorner.restaurant.dto;
+
+public class DispatchResult {
+
+    private final Long orderId;
+    private final Long deliveryId;
+    private final Long driverId;
+    private final String driverName;
+    private final double distanceKm;
+
+    public DispatchResult(Long orderId, Long deliveryId, Long driverId, String driverName, double distanceKm) {
+        this.orderId = orderId;
+        this.deliveryId = deliveryId;
+        this.driverId = driverId;
+        this.driverName = driverName;
+        this.distanceKm = distanceKm;
+    }
+
+    public Long getOrderId() { return orderId; }
+
+    public Long getDeliveryId() { return deliveryId; }
+
+    public Long getDriverId() { return driverId; }
+
+    public String getDriverName() { return driverName; }
+
+    // Straight-line distance from the driver's last position to the delivery location
+    public double getDistanceKm() { return distanceKm; }
+}
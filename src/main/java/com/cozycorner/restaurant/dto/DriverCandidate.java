@@ -0,0 +1,25 @@
+package com.cozycorner.restaurant.dto;
+
+public class DriverCandidate {
+
+    private final Long driverId;
+    private final double latitude;
+    private final double longitude;
+    private final double distanceKm;
+
+    public DriverCandidate(Long driverId, double latitude, double longitude, double distanceKm) {
+        this.driverId = driverId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceKm = distanceKm;
+    }
+
+    public Long getDriverId() { return driverId; }
+
+    public double getLatitude() { return latitude; }
+
+    public double getLongitude() { return longitude; }
+
+    // Straight-line distance to the delivery location
+    public double getDistanceKm() { return distanceKm; }
+}
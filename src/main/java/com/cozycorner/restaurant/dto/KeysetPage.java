@@ -0,0 +1,22 @@
+package com.cozycorner.restaurant.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (seek) paginated listing. Pass {@code nextCursor} back to get the
+ * following page; it is null once the listing is exhausted.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+
+    public String getNextCursor() { return nextCursor; }
+}
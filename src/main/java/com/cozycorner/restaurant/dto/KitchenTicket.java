@@ -0,0 +1,90 @@
+package com.cozycorner.restaurant.dto;
+
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.entity.Order;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An open order as shown on the kitchen display. Immutable; a status change produces a
+ * new ticket so screens can read the queue without locking.
+ */
+public class KitchenTicket {
+
+    private final Long orderId;
+    private final Order.OrderStatus status;
+    private final Order.OrderType orderType;
+    private final LocalDateTime createdAt;
+    private final long version;
+    private final String specialInstructions;
+    private final int estimatedPrepMinutes;
+    private final List<KitchenTicketLine> lines;
+
+    public KitchenTicket(Long orderId, Order.OrderStatus status, Order.OrderType orderType, LocalDateTime createdAt,
+                         long version, String specialInstructions, int estimatedPrepMinutes,
+                         List<KitchenTicketLine> lines) {
+        this.orderId = orderId;
+        this.status = status;
+        this.orderType = orderType;
+        this.createdAt = createdAt;
+        this.version = version;
+        this.specialInstructions = specialInstructions;
+        this.estimatedPrepMinutes = estimatedPrepMinutes;
+        this.lines = List.copyOf(lines);
+    }
+
+    public KitchenTicket withStatus(Order.OrderStatus newStatus, long newVersion) {
+        return new KitchenTicket(orderId, newStatus, orderType, createdAt, newVersion, specialInstructions,
+                estimatedPrepMinutes, lines);
+    }
+
+    /**
+     * The part of this ticket one station has to cook, or null when it has nothing for
+     * that station. The estimate only covers the station's own lines.
+     */
+    public KitchenTicket forStation(MenuItem.Category station, int defaultPrepMinutes) {
+        List<KitchenTicketLine> stationLines = new ArrayList<>();
+        for (KitchenTicketLine line : lines) {
+            if (line.getCategory() == station) {
+                stationLines.add(line);
+            }
+        }
+        if (stationLines.isEmpty()) {
+            return null;
+        }
+        return new KitchenTicket(orderId, status, orderType, createdAt, version, specialInstructions,
+                estimatePrepMinutes(stationLines, defaultPrepMinutes), stationLines);
+    }
+
+    // Lines are cooked in parallel, so the slowest one sets the pace
+    public static int estimatePrepMinutes(List<KitchenTicketLine> lines, int defaultPrepMinutes) {
+        int minutes = 0;
+        for (KitchenTicketLine line : lines) {
+            Integer lineMinutes = line.getPreparationTime();
+            minutes = Math.max(minutes, lineMinutes == null ? defaultPrepMinutes : lineMinutes);
+        }
+        return lines.isEmpty() ? defaultPrepMinutes : minutes;
+    }
+
+    public Long getOrderId() { return orderId; }
+
+    public Order.OrderStatus getStatus() { return status; }
+
+    public Order.OrderType getOrderType() { return orderType; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    @JsonIgnore
+    public long getVersion() { return version; }
+
+    public String getSpecialInstructions() { return specialInstructions; }
+
+    public int getEstimatedPrepMinutes() { return estimatedPrepMinutes; }
+
+    public LocalDateTime getEstimatedReadyAt() { return createdAt.plusMinutes(estimatedPrepMinutes); }
+
+    public List<KitchenTicketLine> getLines() { return lines; }
+}
@@ -0,0 +1,41 @@
+package com.cozycorner.restaurant.dto;
+
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public class KitchenTicketLine {
+
+    private final Long orderId;
+    private final Long menuItemId;
+    private final String menuItemName;
+    private final MenuItem.Category category;
+    private final Integer quantity;
+    private final String customization;
+    private final Integer preparationTime;
+
+    public KitchenTicketLine(Long orderId, Long menuItemId, String menuItemName, MenuItem.Category category,
+                             Integer quantity, String customization, Integer preparationTime) {
+        this.orderId = orderId;
+        this.menuItemId = menuItemId;
+        this.menuItemName = menuItemName;
+        this.category = category;
+        this.quantity = quantity;
+        this.customization = customization;
+        this.preparationTime = preparationTime;
+    }
+
+    @JsonIgnore
+    public Long getOrderId() { return orderId; }
+
+    public Long getMenuItemId() { return menuItemId; }
+
+    public String getMenuItemName() { return menuItemName; }
+
+    public MenuItem.Category getCategory() { return category; }
+
+    public Integer getQuantity() { return quantity; }
+
+    public String getCustomization() { return customization; }
+
+    public Integer getPreparationTime() { return preparationTime; }
+}
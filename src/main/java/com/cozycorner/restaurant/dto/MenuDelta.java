@@ -0,0 +1,71 @@
+package com.cozycorner.restaurant.dto;
+
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Difference between two consecutive menu versions as pushed on {@code /topic/menu}.
+ * A client that last saw {@code previousVersion} can apply the changes and move to
+ * {@code version}; on a gap it asks {@code GET /menu/deltas?since=} or refetches the menu.
+ */
+public class MenuDelta {
+
+    private final long version;
+    private final long previousVersion;
+    private final List<ItemChange> changes;
+
+    public MenuDelta(long version, long previousVersion, List<ItemChange> changes) {
+        this.version = version;
+        this.previousVersion = previousVersion;
+        this.changes = changes;
+    }
+
+    public long getVersion() { return version; }
+
+    public long getPreviousVersion() { return previousVersion; }
+
+    public List<ItemChange> getChanges() { return changes; }
+
+    public enum ChangeType {
+        ADDED, UPDATED, REMOVED
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemChange {
+        private final ChangeType type;
+        private final Long itemId;
+        private final MenuItem item;
+        private final Map<String, Object> fields;
+
+        private ItemChange(ChangeType type, Long itemId, MenuItem item, Map<String, Object> fields) {
+            this.type = type;
+            this.itemId = itemId;
+            this.item = item;
+            this.fields = fields;
+        }
+
+        public static ItemChange added(MenuItem item) {
+            return new ItemChange(ChangeType.ADDED, item.getId(), item, null);
+        }
+
+        public static ItemChange updated(Long itemId, Map<String, Object> fields) {
+            return new ItemChange(ChangeType.UPDATED, itemId, null, fields);
+        }
+
+        // Item deleted or 86'd (no longer available)
+        public static ItemChange removed(Long itemId) {
+            return new ItemChange(ChangeType.REMOVED, itemId, null, null);
+        }
+
+        public ChangeType getType() { return type; }
+
+        public Long getItemId() { return itemId; }
+
+        public MenuItem getItem() { return item; }
+
+        public Map<String, Object> getFields() { return fields; }
+    }
+}
@@ -0,0 +1,25 @@
+package com.cozycorner.restaurant.dto;
+
+import com.cozycorner.restaurant.entity.MenuItem;
+
+import java.util.List;
+import java.util.Map;
+
+public class MenuFacetResponse {
+
+    private final List<MenuItem> items;
+    private final int total;
+    private final Map<String, Map<String, Integer>> facets;
+
+    public MenuFacetResponse(List<MenuItem> items, int total, Map<String, Map<String, Integer>> facets) {
+        this.items = items;
+        this.total = total;
+        this.facets = facets;
+    }
+
+    public List<MenuItem> getItems() { return items; }
+
+    public int getTotal() { return total; }
+
+    public Map<String, Map<String, Integer>> getFacets() { return facets; }
+}
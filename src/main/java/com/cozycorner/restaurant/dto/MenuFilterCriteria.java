@@ -0,0 +1,42 @@
+package com.cozycorner.restaurant.dto;
+
+import com.cozycorner.restaurant.entity.MenuItem;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Combined menu filter bound from query parameters. Unset fields do not constrain the result;
+ * several categories are OR-ed together, everything else is AND-ed.
+ */
+public class MenuFilterCriteria {
+
+    private List<MenuItem.Category> category;
+    private Boolean vegetarian;
+    private Boolean spicy;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer maxCalories;
+    private Integer maxPreparationTime;
+
+    public List<MenuItem.Category> getCategory() { return category; }
+    public void setCategory(List<MenuItem.Category> category) { this.category = category; }
+
+    public Boolean getVegetarian() { return vegetarian; }
+    public void setVegetarian(Boolean vegetarian) { this.vegetarian = vegetarian; }
+
+    public Boolean getSpicy() { return spicy; }
+    public void setSpicy(Boolean spicy) { this.spicy = spicy; }
+
+    public BigDecimal getMinPrice() { return minPrice; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+
+    public Integer getMaxCalories() { return maxCalories; }
+    public void setMaxCalories(Integer maxCalories) { this.maxCalories = maxCalories; }
+
+    public Integer getMaxPreparationTime() { return maxPreparationTime; }
+    public void setMaxPreparationTime(Integer maxPreparationTime) { this.maxPreparationTime = maxPreparationTime; }
+}
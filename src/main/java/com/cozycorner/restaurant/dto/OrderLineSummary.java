@@ -0,0 +1,46 @@
+package com.cozycorner.restaurant.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+
+public class OrderLineSummary {
+
+    private final Long orderId;
+    private final Long id;
+    private final Long menuItemId;
+    private final String menuItemName;
+    private final Integer quantity;
+    private final BigDecimal unitPrice;
+    private final BigDecimal totalPrice;
+    private final String customization;
+
+    public OrderLineSummary(Long orderId, Long id, Long menuItemId, String menuItemName, Integer quantity,
+                            BigDecimal unitPrice, BigDecimal totalPrice, String customization) {
+        this.orderId = orderId;
+        this.id = id;
+        this.menuItemId = menuItemId;
+        this.menuItemName = menuItemName;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.totalPrice = totalPrice;
+        this.customization = customization;
+    }
+
+    @JsonIgnore
+    public Long getOrderId() { return orderId; }
+
+    public Long getId() { return id; }
+
+    public Long getMenuItemId() { return menuItemId; }
+
+    public String getMenuItemName() { return menuItemName; }
+
+    public Integer getQuantity() { return quantity; }
+
+    public BigDecimal getUnitPrice() { return unitPrice; }
+
+    public BigDecimal getTotalPrice() { return totalPrice; }
+
+    public String getCustomization() { return customization; }
+}
@@ -0,0 +1,71 @@
+package com.cozycorner.restaurant.dto;
+
+import com.cozycorner.restaurant.entity.Delivery;
+import com.cozycorner.restaurant.entity.Order;
+import com.cozycorner.restaurant.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model of an order for list views. Built from constructor-expression queries rather
+ * than entities, so rendering it never triggers lazy loads.
+ */
+public class OrderSummary {
+
+    private final Long id;
+    private final Order.OrderStatus status;
+    private final Order.OrderType orderType;
+    private final BigDecimal totalPrice;
+    private final String deliveryAddress;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime estimatedDeliveryTime;
+    private final Long customerId;
+    private final String customerName;
+    private final Payment.PaymentStatus paymentStatus;
+    private final Delivery.DeliveryStatus deliveryStatus;
+    private final List<OrderLineSummary> items = new ArrayList<>();
+
+    public OrderSummary(Long id, Order.OrderStatus status, Order.OrderType orderType, BigDecimal totalPrice,
+                        String deliveryAddress, LocalDateTime createdAt, LocalDateTime estimatedDeliveryTime,
+                        Long customerId, String customerName,
+                        Payment.PaymentStatus paymentStatus, Delivery.DeliveryStatus deliveryStatus) {
+        this.id = id;
+        this.status = status;
+        this.orderType = orderType;
+        this.totalPrice = totalPrice;
+        this.deliveryAddress = deliveryAddress;
+        this.createdAt = createdAt;
+        this.estimatedDeliveryTime = estimatedDeliveryTime;
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.paymentStatus = paymentStatus;
+        this.deliveryStatus = deliveryStatus;
+    }
+
+    public Long getId() { return id; }
+
+    public Order.OrderStatus getStatus() { return status; }
+
+    public Order.OrderType getOrderType() { return orderType; }
+
+    public BigDecimal getTotalPrice() { return totalPrice; }
+
+    public String getDeliveryAddress() { return deliveryAddress; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getEstimatedDeliveryTime() { return estimatedDeliveryTime; }
+
+    public Long getCustomerId() { return customerId; }
+
+    public String getCustomerName() { return customerName; }
+
+    public Payment.PaymentStatus getPaymentStatus() { return paymentStatus; }
+
+    public Delivery.DeliveryStatus getDeliveryStatus() { return deliveryStatus; }
+
+    public List<OrderLineSummary> getItems() { return items; }
+}
@@ -0,0 +1,71 @@
+package com.cozycorner.restaurant.dto;
+
+import com.cozycorner.restaurant.entity.Order;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Body of {@code POST /orders}. Only menu item ids and quantities come from the client;
+ * prices are always taken from the current menu.
+ */
+public class PlaceOrderRequest {
+
+    @NotNull(message = "Order type is required")
+    private Order.OrderType orderType = Order.OrderType.DELIVERY;
+
+    private String deliveryAddress;
+
+    @Size(max = 1000, message = "Special instructions must be at most 1000 characters")
+    private String specialInstructions;
+
+    private String couponCode;
+
+    @Valid
+    @NotEmpty(message = "An order needs at least one item")
+    @Size(max = 100, message = "An order can have at most 100 lines")
+    private List<Line> items = new ArrayList<>();
+
+    public static class Line {
+        @NotNull(message = "Menu item is required")
+        private Long menuItemId;
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        @Max(value = 99, message = "Quantity must be at most 99")
+        private Integer quantity;
+
+        @Size(max = 500, message = "Customization must be at most 500 characters")
+        private String customization;
+
+        public Long getMenuItemId() { return menuItemId; }
+        public void setMenuItemId(Long menuItemId) { this.menuItemId = menuItemId; }
+
+        public Integer getQuantity() { return quantity; }
+        public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+        public String getCustomization() { return customization; }
+        public void setCustomization(String customization) { this.customization = customization; }
+    }
+
+    public Order.OrderType getOrderType() { return orderType; }
+    public void setOrderType(Order.OrderType orderType) { this.orderType = orderType; }
+
+    public String getDeliveryAddress() { return deliveryAddress; }
+    public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
+
+    public String getSpecialInstructions() { return specialInstructions; }
+    public void setSpecialInstructions(String specialInstructions) { this.specialInstructions = specialInstructions; }
+
+    public String getCouponCode() { return couponCode; }
+    public void setCouponCode(String couponCode) { this.couponCode = couponCode; }
+
+    public List<Line> getItems() { return items; }
+    public void setItems(List<Line> items) { this.items = items; }
+}
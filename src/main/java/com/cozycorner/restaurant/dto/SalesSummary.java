@@ -0,0 +1,58 @@
+package com.cozycorner.restaurant.dto;
+
+import com.cozycorner.restaurant.entity.Order;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Delivered-order totals for one period, overall and per order type. Money is kept as
+ * exact decimals end to end.
+ */
+public class SalesSummary {
+
+    private final LocalDateTime periodStart;
+    private final Totals total = new Totals();
+    private final Map<Order.OrderType, Totals> byOrderType = new EnumMap<>(Order.OrderType.class);
+
+    public SalesSummary(LocalDateTime periodStart) {
+        this.periodStart = periodStart;
+        for (Order.OrderType orderType : Order.OrderType.values()) {
+            byOrderType.put(orderType, new Totals());
+        }
+    }
+
+    public void add(Order.OrderType orderType, long orderCount, BigDecimal revenue) {
+        total.add(orderCount, revenue);
+        byOrderType.get(orderType).add(orderCount, revenue);
+    }
+
+    public LocalDateTime getPeriodStart() { return periodStart; }
+
+    public Totals getTotal() { return total; }
+
+    public Map<Order.OrderType, Totals> getByOrderType() { return byOrderType; }
+
+    public static class Totals {
+        private long orderCount;
+        private BigDecimal revenue = BigDecimal.ZERO.setScale(2);
+
+        private void add(long orders, BigDecimal amount) {
+            orderCount += orders;
+            revenue = revenue.add(amount);
+        }
+
+        public long getOrderCount() { return orderCount; }
+
+        public BigDecimal getRevenue() { return revenue; }
+
+        public BigDecimal getAverageTicket() {
+            return orderCount == 0
+                    ? BigDecimal.ZERO.setScale(2)
+                    : revenue.divide(BigDecimal.valueOf(orderCount), 2, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.cozycorner.restaurant.entity;
 
+import com.cozycorner.restaurant.service.CouponCodeIndex;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "coupons")
+@EntityListeners(CouponCodeIndex.EntityListener.class)
 public class Coupon {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
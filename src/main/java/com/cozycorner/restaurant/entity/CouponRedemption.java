@@ -0,0 +1,42 @@
+package com.cozycorner.restaurant.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One committed coupon use that {@code coupons.usage_count} does not include yet. Written
+ * in the same transaction as the order that used the coupon, and deleted in the same
+ * transaction that adds the use to the count.
+ */
+@Entity
+@Table(name = "coupon_redemptions")
+public class CouponRedemption {
+    // Pooled sequence so the insert is batched with the order's own
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "coupon_redemptions_seq")
+    @SequenceGenerator(name = "coupon_redemptions_seq", sequenceName = "coupon_redemptions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "coupon_id", nullable = false)
+    private Long couponId;
+
+    @Column(name = "redeemed_at", nullable = false)
+    private LocalDateTime redeemedAt = LocalDateTime.now();
+
+    // Constructors
+    public CouponRedemption() {}
+
+    public CouponRedemption(Long couponId) {
+        this.couponId = couponId;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getCouponId() { return couponId; }
+    public void setCouponId(Long couponId) { this.couponId = couponId; }
+
+    public LocalDateTime getRedeemedAt() { return redeemedAt; }
+    public void setRedeemedAt(LocalDateTime redeemedAt) { this.redeemedAt = redeemedAt; }
+}
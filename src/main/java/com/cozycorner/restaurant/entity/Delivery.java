@@ -1,10 +1,14 @@
 package com.cozycorner.restaurant.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
+// Only changed columns are written, so saving a delivery never overwrites the position
+// columns that DeliveryLocationService writes in the background
 @Entity
 @Table(name = "deliveries")
+@DynamicUpdate
 public class Delivery {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,6 +41,17 @@ public class Delivery {
     @Column(name = "current_longitude")
     private Double currentLongitude;
 
+    // When the driver's device took the current position; updated_at is not bumped for it
+    @Column(name = "location_updated_at")
+    private LocalDateTime locationUpdatedAt;
+
+    // Where the order goes, as given at dispatch; used for live ETAs
+    @Column(name = "destination_latitude")
+    private Double destinationLatitude;
+
+    @Column(name = "destination_longitude")
+    private Double destinationLongitude;
+
     @Column(name = "delivery_notes", columnDefinition = "TEXT")
     private String deliveryNotes;
 
@@ -85,6 +100,15 @@ public class Delivery {
     public Double getCurrentLongitude() { return currentLongitude; }
     public void setCurrentLongitude(Double currentLongitude) { this.currentLongitude = currentLongitude; }
 
+    public LocalDateTime getLocationUpdatedAt() { return locationUpdatedAt; }
+    public void setLocationUpdatedAt(LocalDateTime locationUpdatedAt) { this.locationUpdatedAt = locationUpdatedAt; }
+
+    public Double getDestinationLatitude() { return destinationLatitude; }
+    public void setDestinationLatitude(Double destinationLatitude) { this.destinationLatitude = destinationLatitude; }
+
+    public Double getDestinationLongitude() { return destinationLongitude; }
+    public void setDestinationLongitude(Double destinationLongitude) { this.destinationLongitude = destinationLongitude; }
+
     public String getDeliveryNotes() { return deliveryNotes; }
     public void setDeliveryNotes(String deliveryNotes) { this.deliveryNotes = deliveryNotes; }
 
@@ -8,10 +8,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "menu_items")
+@Table(name = "menu_items", indexes = {
+        @Index(name = "idx_menu_items_updated_at_id", columnList = "updated_at, id")
+})
 public class MenuItem {
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts (bulk catalog imports)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_items_seq")
+    @SequenceGenerator(name = "menu_items_seq", sequenceName = "menu_items_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name is required")
@@ -6,13 +6,21 @@ import jakarta.validation.constraints.PositiveOrZero;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_orders_customer_idempotency_key", columnNames = {"customer_id", "idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_orders_customer_created_at", columnList = "customer_id, created_at DESC, id DESC"),
+        @Index(name = "idx_orders_created_at", columnList = "created_at")
+})
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Customer is required")
@@ -29,6 +37,18 @@ public class Order {
     @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalPrice;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "coupon_id")
+    private Coupon coupon;
+
+    @PositiveOrZero(message = "Discount amount must be positive")
+    @Column(name = "discount_amount", precision = 10, scale = 2)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    // Client-supplied key of the request that placed this order; unique per customer
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
     @Column(name = "delivery_address", columnDefinition = "TEXT")
     private String deliveryAddress;
 
@@ -51,6 +71,13 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Bumped by every write, including OrderRepository.transitionStatus, so a stale
+    // full-entity save can't overwrite a status change made in the meantime. Null until
+    // persisted: Spring Data tells new orders by it and would otherwise merge a copy
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     // One order can have multiple order items
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
@@ -64,7 +91,27 @@ public class Order {
     private Delivery delivery;
 
     public enum OrderStatus {
-        PENDING, CONFIRMED, PREPARING, READY, OUT_FOR_DELIVERY, DELIVERED, CANCELLED
+        PENDING, CONFIRMED, PREPARING, READY, OUT_FOR_DELIVERY, DELIVERED, CANCELLED;
+
+        private Set<OrderStatus> next;
+
+        static {
+            PENDING.next = EnumSet.of(CONFIRMED, CANCELLED);
+            CONFIRMED.next = EnumSet.of(PREPARING, CANCELLED);
+            PREPARING.next = EnumSet.of(READY, CANCELLED);
+            READY.next = EnumSet.of(OUT_FOR_DELIVERY, DELIVERED, CANCELLED);
+            OUT_FOR_DELIVERY.next = EnumSet.of(DELIVERED);
+            DELIVERED.next = EnumSet.noneOf(OrderStatus.class);
+            CANCELLED.next = EnumSet.noneOf(OrderStatus.class);
+        }
+
+        public boolean canTransitionTo(OrderStatus target) {
+            return next.contains(target);
+        }
+
+        public boolean isTerminal() {
+            return next.isEmpty();
+        }
     }
 
     public enum OrderType {
@@ -93,6 +140,15 @@ public class Order {
     public BigDecimal getTotalPrice() { return totalPrice; }
     public void setTotalPrice(BigDecimal totalPrice) { this.totalPrice = totalPrice; }
 
+    public Coupon getCoupon() { return coupon; }
+    public void setCoupon(Coupon coupon) { this.coupon = coupon; }
+
+    public BigDecimal getDiscountAmount() { return discountAmount; }
+    public void setDiscountAmount(BigDecimal discountAmount) { this.discountAmount = discountAmount; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
     public String getDeliveryAddress() { return deliveryAddress; }
     public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
 
@@ -123,6 +179,20 @@ public class Order {
     public Delivery getDelivery() { return delivery; }
     public void setDelivery(Delivery delivery) { this.delivery = delivery; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    // Delivery orders must go out with a driver; pickup orders are handed over at the counter
+    public boolean canTransitionTo(OrderStatus target) {
+        if (!status.canTransitionTo(target)) {
+            return false;
+        }
+        if (status == OrderStatus.READY && target != OrderStatus.CANCELLED) {
+            return (orderType == OrderType.DELIVERY) == (target == OrderStatus.OUT_FOR_DELIVERY);
+        }
+        return true;
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
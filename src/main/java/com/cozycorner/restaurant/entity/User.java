@@ -1,5 +1,6 @@
 package com.cozycorner.restaurant.entity;
 
+import com.cozycorner.restaurant.security.CachedUserDetailsService;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -14,6 +15,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(CachedUserDetailsService.EntityListener.class)
 public class User implements UserDetails {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
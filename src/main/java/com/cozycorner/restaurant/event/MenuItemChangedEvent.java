@@ -0,0 +1,26 @@
+package com.cozycorner.restaurant.event;
+
+import com.cozycorner.restaurant.entity.MenuItem;
+
+/**
+ * Published whenever a menu item is created, updated or soft-deleted so that
+ * in-memory read models (menu snapshot, search index, ...) can catch up.
+ */
+public class MenuItemChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final MenuItem menuItem;
+    private final ChangeType changeType;
+
+    public MenuItemChangedEvent(MenuItem menuItem, ChangeType changeType) {
+        this.menuItem = menuItem;
+        this.changeType = changeType;
+    }
+
+    public MenuItem getMenuItem() { return menuItem; }
+
+    public ChangeType getChangeType() { return changeType; }
+}
@@ -0,0 +1,30 @@
+package com.cozycorner.restaurant.event;
+
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.service.MenuSnapshot;
+
+/**
+ * Published by the menu cache after a new snapshot has been swapped in. When the swap
+ * was caused by a single item change, that item is included so listeners can update
+ * incrementally; otherwise (full rebuild) it is null.
+ */
+public class MenuSnapshotChangedEvent {
+
+    private final MenuSnapshot previous;
+    private final MenuSnapshot snapshot;
+    private final MenuItem changedItem;
+
+    public MenuSnapshotChangedEvent(MenuSnapshot previous, MenuSnapshot snapshot, MenuItem changedItem) {
+        this.previous = previous;
+        this.snapshot = snapshot;
+        this.changedItem = changedItem;
+    }
+
+    public MenuSnapshot getPrevious() { return previous; }
+
+    public MenuSnapshot getSnapshot() { return snapshot; }
+
+    public MenuItem getChangedItem() { return changedItem; }
+
+    public boolean isIncremental() { return changedItem != null && previous != null; }
+}
@@ -0,0 +1,25 @@
+package com.cozycorner.restaurant.event;
+
+import com.cozycorner.restaurant.entity.Order;
+
+/**
+ * Published inside the transaction that moves an order to a new status, so listeners
+ * that must stay consistent with the order (sales rollups, ...) can join it. A newly
+ * placed order is published with no previous status.
+ */
+public class OrderStatusChangedEvent {
+
+    private final Order order;
+    private final Order.OrderStatus previousStatus;
+
+    public OrderStatusChangedEvent(Order order, Order.OrderStatus previousStatus) {
+        this.order = order;
+        this.previousStatus = previousStatus;
+    }
+
+    public Order getOrder() { return order; }
+
+    public Order.OrderStatus getPreviousStatus() { return previousStatus; }
+
+    public Order.OrderStatus getNewStatus() { return order.getStatus(); }
+}
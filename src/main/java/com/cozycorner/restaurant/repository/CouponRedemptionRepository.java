@@ -0,0 +1,9 @@
+package com.cozycorner.restaurant.repository;
+
+import com.cozycorner.restaurant.entity.CouponRedemption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CouponRedemptionRepository extends JpaRepository<CouponRedemption, Long> {
+}
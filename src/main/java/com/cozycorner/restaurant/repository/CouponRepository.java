@@ -0,0 +1,32 @@
+package com.cozycorner.restaurant.repository;
+
+import com.cozycorner.restaurant.entity.Coupon;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CouponRepository extends JpaRepository<Coupon, Long> {
+    
+    Optional<Coupon> findByCode(String code);
+    
+    @Query("SELECT COALESCE(c.usageCount, 0) FROM Coupon c WHERE c.id = :id")
+    Optional<Integer> findUsageCount(@Param("id") Long id);
+    
+    // Adds uses counted in memory since the last flush
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usageCount = COALESCE(c.usageCount, 0) + :uses WHERE c.id = :id")
+    int addUsage(@Param("id") Long id, @Param("uses") int uses);
+    
+    // Adds committed uses still in the redemption log, i.e. never flushed to the count
+    @Modifying
+    @Query(value = "UPDATE coupons c SET usage_count = COALESCE(c.usage_count, 0) + " +
+                   "(SELECT COUNT(*) FROM coupon_redemptions r WHERE r.coupon_id = c.id) " +
+                   "WHERE EXISTS (SELECT 1 FROM coupon_redemptions r WHERE r.coupon_id = c.id)",
+           nativeQuery = true)
+    int addUnflushedRedemptions();
+}
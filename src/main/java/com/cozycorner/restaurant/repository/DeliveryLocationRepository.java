@@ -0,0 +1,138 @@
+package com.cozycorner.restaurant.repository;
+
+import com.cozycorner.restaurant.dto.DeliveryPosition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to the position columns of {@code deliveries}. Position writes touch
+ * only those columns, so they neither load the entity nor bump {@code updated_at}.
+ */
+@Repository
+public class DeliveryLocationRepository {
+
+    // Only rows still assigned to the same driver and in progress are written, so a position
+    // buffered before a reassignment or completion is dropped instead of overwriting it
+    private static final String UPDATE_POSITION =
+            "UPDATE deliveries SET current_latitude = ?, current_longitude = ?, location_updated_at = ? " +
+            "WHERE id = ? AND driver_id = ? AND status IN ('ASSIGNED', 'PICKED_UP', 'ON_THE_WAY')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Optional<Assignment> findAssignment(Long deliveryId) {
+        List<Assignment> rows = jdbcTemplate.query(
+                "SELECT d.status, d.driver_id, u.email, d.order_id, d.destination_latitude, d.destination_longitude, " +
+                "d.estimated_delivery_time FROM deliveries d LEFT JOIN users u ON u.id = d.driver_id WHERE d.id = ?",
+                (rs, rowNum) -> {
+                    Timestamp estimatedArrival = rs.getTimestamp("estimated_delivery_time");
+                    return new Assignment(rs.getString("status"), rs.getObject("driver_id", Long.class), rs.getString("email"),
+                            rs.getObject("order_id", Long.class),
+                            rs.getObject("destination_latitude", Double.class),
+                            rs.getObject("destination_longitude", Double.class),
+                            estimatedArrival == null ? null : estimatedArrival.toInstant());
+                },
+                deliveryId);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Last position written for the delivery. Empty if the delivery does not exist; a
+     * position with null coordinates if no position has been reported yet.
+     */
+    public Optional<DeliveryPosition> findPosition(Long deliveryId) {
+        List<DeliveryPosition> rows = jdbcTemplate.query(
+                "SELECT current_latitude, current_longitude, location_updated_at FROM deliveries WHERE id = ?",
+                (rs, rowNum) -> {
+                    Timestamp recordedAt = rs.getTimestamp("location_updated_at");
+                    return new DeliveryPosition(deliveryId,
+                            rs.getObject("current_latitude", Double.class),
+                            rs.getObject("current_longitude", Double.class),
+                            recordedAt == null ? null : recordedAt.toInstant());
+                },
+                deliveryId);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Writes the positions in one JDBC batch. Returns, per position, whether its row was
+     * updated; false means the delivery is no longer in progress for that driver.
+     */
+    public boolean[] updatePositions(List<PositionWrite> writes) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_POSITION, writes, writes.size(), (ps, write) -> {
+            ps.setDouble(1, write.latitude);
+            ps.setDouble(2, write.longitude);
+            ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.ofInstant(write.recordedAt, ZoneId.systemDefault())));
+            ps.setLong(4, write.deliveryId);
+            ps.setLong(5, write.driverId);
+        });
+        boolean[] updated = new boolean[writes.size()];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+                updated[i++] = count != 0;
+            }
+        }
+        return updated;
+    }
+
+    public static final class Assignment {
+        private final String status;
+        private final Long driverId;
+        private final String driverEmail;
+        private final Long orderId;
+        private final Double destinationLatitude;
+        private final Double destinationLongitude;
+        private final Instant estimatedArrival;
+
+        Assignment(String status, Long driverId, String driverEmail, Long orderId,
+                   Double destinationLatitude, Double destinationLongitude, Instant estimatedArrival) {
+            this.status = status;
+            this.driverId = driverId;
+            this.driverEmail = driverEmail;
+            this.orderId = orderId;
+            this.destinationLatitude = destinationLatitude;
+            this.destinationLongitude = destinationLongitude;
+            this.estimatedArrival = estimatedArrival;
+        }
+
+        public String getStatus() { return status; }
+
+        public Long getDriverId() { return driverId; }
+
+        public String getDriverEmail() { return driverEmail; }
+
+        public Long getOrderId() { return orderId; }
+
+        public Double getDestinationLatitude() { return destinationLatitude; }
+
+        public Double getDestinationLongitude() { return destinationLongitude; }
+
+        public Instant getEstimatedArrival() { return estimatedArrival; }
+    }
+
+    public static final class PositionWrite {
+        private final long deliveryId;
+        private final long driverId;
+        private final double latitude;
+        private final double longitude;
+        private final Instant recordedAt;
+
+        public PositionWrite(long deliveryId, long driverId, double latitude, double longitude, Instant recordedAt) {
+            this.deliveryId = deliveryId;
+            this.driverId = driverId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.recordedAt = recordedAt;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.cozycorner.restaurant.repository;
+
+import com.cozycorner.restaurant.entity.Delivery;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Delivery d WHERE d.order.id = :orderId")
+    Optional<Delivery> findByOrderIdForUpdate(@Param("orderId") Long orderId);
+    
+    boolean existsByDriverIdAndStatusIn(Long driverId, Collection<Delivery.DeliveryStatus> statuses);
+    
+    @Query("SELECT DISTINCT d.driver.id FROM Delivery d WHERE d.driver IS NOT NULL AND d.status IN :statuses")
+    List<Long> findDriverIdsWithStatusIn(@Param("statuses") Collection<Delivery.DeliveryStatus> statuses);
+}
@@ -1,13 +1,19 @@
 package com.cozycorner.restaurant.repository;
 
 import com.cozycorner.restaurant.entity.MenuItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
@@ -43,4 +49,27 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
            "(:vegetarian = false OR m.isVegetarian = true) AND " +
            "(:spicy = false OR m.isSpicy = true)")
     List<MenuItem> findByDietaryPreferences(@Param("vegetarian") Boolean vegetarian, @Param("spicy") Boolean spicy);
+    
+    // Admin listing - keyset (seek) pagination, the page size comes from the Pageable
+    @Query("SELECT m FROM MenuItem m WHERE m.id > :afterId ORDER BY m.id ASC")
+    List<MenuItem> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT m FROM MenuItem m ORDER BY m.updatedAt ASC, m.id ASC")
+    List<MenuItem> findFirstPageByUpdatedAt(Pageable pageable);
+    
+    @Query("SELECT m FROM MenuItem m WHERE m.updatedAt > :updatedAt OR (m.updatedAt = :updatedAt AND m.id > :afterId) " +
+           "ORDER BY m.updatedAt ASC, m.id ASC")
+    List<MenuItem> findPageAfterUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt, @Param("afterId") Long afterId, Pageable pageable);
+    
+    // Lightweight (id, name) pairs used to match imported rows without loading whole entities
+    @Query("SELECT m.id, m.name FROM MenuItem m ORDER BY m.id ASC")
+    List<Object[]> findAllIdsAndNames();
+    
+    // Forward-only cursor over the whole catalog; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM MenuItem m ORDER BY m.id ASC")
+    Stream<MenuItem> streamAllOrderById();
 }
@@ -0,0 +1,178 @@
+package com.cozycorner.restaurant.repository;
+
+import com.cozycorner.restaurant.dto.OrderLineSummary;
+import com.cozycorner.restaurant.dto.OrderSummary;
+import com.cozycorner.restaurant.entity.Delivery;
+import com.cozycorner.restaurant.entity.Order;
+import com.cozycorner.restaurant.entity.Payment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cold storage for finished orders. Each hot table has an {@code *_archive} twin created
+ * from its current shape; rows are moved with INSERT ... SELECT so the archive never needs
+ * an entity model of its own. Plain JDBC on purpose: these tables are not mapped.
+ */
+@Repository
+public class OrderArchiveRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveRepository.class);
+
+    // hot table -> archive table, children before parents (the order rows are deleted last)
+    private static final Map<String, String> TABLES = new LinkedHashMap<>();
+
+    static {
+        TABLES.put("order_items", "order_items_archive");
+        TABLES.put("payments", "payments_archive");
+        TABLES.put("deliveries", "deliveries_archive");
+        TABLES.put("orders", "orders_archive");
+    }
+
+    private static final String SUMMARY_SELECT =
+            "SELECT o.id, o.status, o.order_type, o.total_price, o.delivery_address, o.created_at, " +
+            "o.estimated_delivery_time, c.id AS customer_id, c.name AS customer_name, " +
+            "p.status AS payment_status, d.status AS delivery_status " +
+            "FROM orders_archive o JOIN users c ON c.id = o.customer_id " +
+            "LEFT JOIN payments_archive p ON p.order_id = o.id " +
+            "LEFT JOIN deliveries_archive d ON d.order_id = o.id ";
+
+    private static final RowMapper<OrderSummary> SUMMARY_MAPPER = (rs, rowNum) -> new OrderSummary(
+            rs.getLong("id"),
+            Order.OrderStatus.valueOf(rs.getString("status")),
+            Order.OrderType.valueOf(rs.getString("order_type")),
+            rs.getBigDecimal("total_price"),
+            rs.getString("delivery_address"),
+            toLocalDateTime(rs.getTimestamp("created_at")),
+            toLocalDateTime(rs.getTimestamp("estimated_delivery_time")),
+            rs.getLong("customer_id"),
+            rs.getString("customer_name"),
+            rs.getString("payment_status") == null ? null : Payment.PaymentStatus.valueOf(rs.getString("payment_status")),
+            rs.getString("delivery_status") == null ? null : Delivery.DeliveryStatus.valueOf(rs.getString("delivery_status")));
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // hot table -> columns copied on archive; columns the archive lacks are left behind
+    private final Map<String, String> copiedColumns = new LinkedHashMap<>();
+
+    /**
+     * Creates missing archive tables and indexes from the current hot tables. Safe to run
+     * on every start.
+     */
+    public void ensureSchema() {
+        TABLES.forEach((hot, archive) -> {
+            jdbcTemplate.getJdbcTemplate().execute(
+                    "CREATE TABLE IF NOT EXISTS " + archive + " AS SELECT * FROM " + hot + " WITH NO DATA");
+            Set<String> hotColumns = columnsOf(hot);
+            Set<String> archiveColumns = columnsOf(archive);
+            Set<String> copied = new LinkedHashSet<>(hotColumns);
+            copied.retainAll(archiveColumns);
+            for (String column : hotColumns) {
+                if (!archiveColumns.contains(column)) {
+                    log.warn("Column {}.{} does not exist in {} and will not be archived", hot, column, archive);
+                }
+            }
+            copiedColumns.put(hot, String.join(", ", copied));
+        });
+        execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_orders_archive_id ON orders_archive (id)");
+        execute("CREATE INDEX IF NOT EXISTS idx_orders_archive_customer_created_at ON orders_archive (customer_id, created_at DESC, id DESC)");
+        execute("CREATE INDEX IF NOT EXISTS idx_order_items_archive_order_id ON order_items_archive (order_id)");
+        execute("CREATE INDEX IF NOT EXISTS idx_payments_archive_order_id ON payments_archive (order_id)");
+        execute("CREATE INDEX IF NOT EXISTS idx_deliveries_archive_order_id ON deliveries_archive (order_id)");
+    }
+
+    /**
+     * Locks and returns up to {@code limit} finished orders placed before the cutoff,
+     * oldest first. Must run inside the transaction that then moves them.
+     */
+    public List<Long> lockArchivableOrderIds(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM orders WHERE status IN ('DELIVERED', 'CANCELLED') AND created_at < :cutoff " +
+                "ORDER BY created_at, id LIMIT :limit FOR UPDATE",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)).addValue("limit", limit),
+                Long.class);
+    }
+
+    /**
+     * Copies the given orders and their items, payments and deliveries into the archive
+     * and deletes them from the hot tables. Returns rows moved per hot table.
+     */
+    public Map<String, Integer> moveToArchive(Collection<Long> orderIds) {
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", orderIds);
+        Map<String, Integer> moved = new LinkedHashMap<>();
+        TABLES.forEach((hot, archive) -> {
+            String key = "orders".equals(hot) ? "id" : "order_id";
+            String columns = copiedColumns.get(hot);
+            moved.put(hot, jdbcTemplate.update("INSERT INTO " + archive + " (" + columns + ") SELECT " + columns +
+                    " FROM " + hot + " WHERE " + key + " IN (:ids)", ids));
+        });
+        TABLES.forEach((hot, archive) -> {
+            String key = "orders".equals(hot) ? "id" : "order_id";
+            jdbcTemplate.update("DELETE FROM " + hot + " WHERE " + key + " IN (:ids)", ids);
+        });
+        return moved;
+    }
+
+    public long countHotOrders() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM orders", Long.class);
+    }
+
+    public long countArchivedOrders() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM orders_archive", Long.class);
+    }
+
+    // Same ordering and cursor semantics as OrderRepository.findCustomerOrderSummaries(Before)
+    public List<OrderSummary> findCustomerOrderSummaries(Long customerId, LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("customerId", customerId).addValue("limit", limit);
+        String where = "WHERE o.customer_id = :customerId ";
+        if (beforeCreatedAt != null) {
+            where += "AND (o.created_at < :createdAt OR (o.created_at = :createdAt AND o.id < :id)) ";
+            params.addValue("createdAt", Timestamp.valueOf(beforeCreatedAt)).addValue("id", beforeId);
+        }
+        return jdbcTemplate.query(SUMMARY_SELECT + where + "ORDER BY o.created_at DESC, o.id DESC LIMIT :limit",
+                params, SUMMARY_MAPPER);
+    }
+
+    public List<OrderLineSummary> findLineSummariesByOrderIds(Collection<Long> orderIds) {
+        return jdbcTemplate.query(
+                "SELECT oi.order_id, oi.id, oi.menu_item_id, m.name, oi.quantity, oi.unit_price, oi.total_price, oi.customization " +
+                "FROM order_items_archive oi LEFT JOIN menu_items m ON m.id = oi.menu_item_id " +
+                "WHERE oi.order_id IN (:ids) ORDER BY oi.id",
+                new MapSqlParameterSource("ids", orderIds),
+                (rs, rowNum) -> new OrderLineSummary(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4),
+                        rs.getInt(5), rs.getBigDecimal(6), rs.getBigDecimal(7), rs.getString(8)));
+    }
+
+    private Set<String> columnsOf(String table) {
+        SqlRowSetMetaData metaData = jdbcTemplate.getJdbcTemplate().queryForRowSet("SELECT * FROM " + table + " WHERE 1 = 0").getMetaData();
+        Set<String> columns = new LinkedHashSet<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(metaData.getColumnName(i).toLowerCase(Locale.ROOT));
+        }
+        return columns;
+    }
+
+    private void execute(String sql) {
+        jdbcTemplate.getJdbcTemplate().execute(sql);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -1,18 +1,30 @@
 package com.cozycorner.restaurant.repository;
 
+import com.cozycorner.restaurant.dto.KitchenTicketLine;
+import com.cozycorner.restaurant.dto.OrderLineSummary;
+import com.cozycorner.restaurant.dto.OrderSummary;
 import com.cozycorner.restaurant.entity.Order;
 import com.cozycorner.restaurant.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
+    @Query("SELECT o.customer.email FROM Order o WHERE o.id = :id")
+    Optional<String> findCustomerEmailById(@Param("id") Long id);
+    
     List<Order> findByCustomer(User customer);
     
     List<Order> findByCustomerOrderByCreatedAtDesc(User customer);
@@ -29,8 +41,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     // Find today's orders
-    @Query("SELECT o FROM Order o WHERE DATE(o.createdAt) = CURRENT_DATE ORDER BY o.createdAt DESC")
-    List<Order> findTodaysOrders();
+    default List<Order> findTodaysOrders() {
+        LocalDate today = LocalDate.now();
+        return findPlacedBetween(today.atStartOfDay(), today.plusDays(1).atStartOfDay());
+    }
+    
+    // Half-open range on the bare column so it stays an index range scan
+    @Query("SELECT o FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to ORDER BY o.createdAt DESC")
+    List<Order> findPlacedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
     
     // Find pending orders (orders that need attention)
     @Query("SELECT o FROM Order o WHERE o.status IN ('PENDING', 'CONFIRMED', 'PREPARING') ORDER BY o.createdAt ASC")
@@ -44,17 +62,74 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.status = 'READY' AND o.orderType = 'PICKUP' ORDER BY o.createdAt ASC")
     List<Order> findOrdersReadyForPickup();
     
-    // Sales analytics
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.status = 'DELIVERED' AND DATE(o.createdAt) = CURRENT_DATE")
-    Long countTodaysCompletedOrders();
+    // Sales analytics - dashboards read SalesRollupService; these scan orders and are for ad-hoc ranges and backfill
+    @Query("SELECT COALESCE(SUM(o.totalPrice), 0) FROM Order o WHERE o.status = 'DELIVERED' AND o.createdAt BETWEEN :startDate AND :endDate")
+    BigDecimal getRevenueByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Rows of [orderType, hour of day, order count, revenue]
+    @Query("SELECT o.orderType, EXTRACT(HOUR FROM o.createdAt), COUNT(o), SUM(o.totalPrice) FROM Order o " +
+           "WHERE o.status = 'DELIVERED' AND o.createdAt >= :from AND o.createdAt < :to " +
+           "GROUP BY o.orderType, EXTRACT(HOUR FROM o.createdAt)")
+    List<Object[]> aggregateDeliveredByHour(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
     
-    @Query("SELECT SUM(o.totalPrice) FROM Order o WHERE o.status = 'DELIVERED' AND DATE(o.createdAt) = CURRENT_DATE")
-    Double getTodaysRevenue();
+    // Compare-and-set on status: only applies if nobody moved the order since it was read,
+    // so concurrent writers resolve without row locks. Returns the number of rows updated.
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.status = :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("from") Order.OrderStatus from,
+                         @Param("to") Order.OrderStatus to,
+                         @Param("now") LocalDateTime now);
     
-    @Query("SELECT SUM(o.totalPrice) FROM Order o WHERE o.status = 'DELIVERED' AND o.createdAt BETWEEN :startDate AND :endDate")
-    Double getRevenueByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    // Same as transitionStatus to DELIVERED, also stamping the actual delivery time
+    @Modifying
+    @Query("UPDATE Order o SET o.status = 'DELIVERED', o.version = o.version + 1, o.updatedAt = :now, o.actualDeliveryTime = :now " +
+           "WHERE o.id = :id AND o.status = :from")
+    int markDelivered(@Param("id") Long id,
+                      @Param("from") Order.OrderStatus from,
+                      @Param("now") LocalDateTime now);
     
     // Customer order history with limit
     @Query("SELECT o FROM Order o WHERE o.customer = :customer ORDER BY o.createdAt DESC")
     List<Order> findCustomerOrderHistory(@Param("customer") User customer);
+    
+    // Read models - one query for the orders (customer, payment and delivery joined in),
+    // one for all of their line items, instead of lazy loads per order and per item
+    String ORDER_SUMMARY_SELECT = "SELECT new com.cozycorner.restaurant.dto.OrderSummary(" +
+            "o.id, o.status, o.orderType, o.totalPrice, o.deliveryAddress, o.createdAt, o.estimatedDeliveryTime, " +
+            "c.id, c.name, p.status, d.status) " +
+            "FROM Order o JOIN o.customer c LEFT JOIN o.payment p LEFT JOIN o.delivery d ";
+    
+    @Query(ORDER_SUMMARY_SELECT + "WHERE o.id = :id")
+    Optional<OrderSummary> findOrderSummaryById(@Param("id") Long id);
+    
+    @Query("SELECT o.id FROM Order o WHERE o.customer.id = :customerId AND o.idempotencyKey = :idempotencyKey")
+    Optional<Long> findIdByIdempotencyKey(@Param("customerId") Long customerId, @Param("idempotencyKey") String idempotencyKey);
+    
+    @Query(ORDER_SUMMARY_SELECT + "WHERE o.status IN ('PENDING', 'CONFIRMED', 'PREPARING') ORDER BY o.createdAt ASC")
+    List<OrderSummary> findPendingOrderSummaries();
+    
+    // Customer history, newest first, keyset-paginated on (createdAt, id) so every page
+    // is an index range scan on idx_orders_customer_created_at
+    @Query(ORDER_SUMMARY_SELECT + "WHERE c.id = :customerId ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findCustomerOrderSummaries(@Param("customerId") Long customerId, Pageable pageable);
+    
+    @Query(ORDER_SUMMARY_SELECT + "WHERE c.id = :customerId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findCustomerOrderSummariesBefore(@Param("customerId") Long customerId,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        Pageable pageable);
+    
+    @Query("SELECT new com.cozycorner.restaurant.dto.OrderLineSummary(" +
+           "oi.order.id, oi.id, m.id, m.name, oi.quantity, oi.unitPrice, oi.totalPrice, oi.customization) " +
+           "FROM OrderItem oi JOIN oi.menuItem m WHERE oi.order.id IN :orderIds ORDER BY oi.id ASC")
+    List<OrderLineSummary> findLineSummariesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+    
+    @Query("SELECT new com.cozycorner.restaurant.dto.KitchenTicketLine(" +
+           "oi.order.id, m.id, m.name, m.category, oi.quantity, oi.customization, m.preparationTime) " +
+           "FROM OrderItem oi JOIN oi.menuItem m WHERE oi.order.id IN :orderIds ORDER BY oi.id ASC")
+    List<KitchenTicketLine> findKitchenLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -0,0 +1,38 @@
+package com.cozycorner.restaurant.repository;
+
+import com.cozycorner.restaurant.entity.Order;
+import com.cozycorner.restaurant.entity.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+    
+    // Atomic in-place increment; returns 0 when the bucket row does not exist yet
+    @Modifying
+    @Query("UPDATE SalesRollup r SET r.orderCount = r.orderCount + :orders, r.revenue = r.revenue + :revenue, r.updatedAt = :now " +
+           "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart AND r.orderType = :orderType")
+    int increment(@Param("granularity") SalesRollup.Granularity granularity,
+                  @Param("bucketStart") LocalDateTime bucketStart,
+                  @Param("orderType") Order.OrderType orderType,
+                  @Param("orders") long orders,
+                  @Param("revenue") BigDecimal revenue,
+                  @Param("now") LocalDateTime now);
+    
+    @Query("SELECT r FROM SalesRollup r WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "ORDER BY r.bucketStart ASC")
+    List<SalesRollup> findBuckets(@Param("granularity") SalesRollup.Granularity granularity,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+    
+    @Modifying
+    @Query("DELETE FROM SalesRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteBuckets(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -1,7 +1,9 @@
 package com.cozycorner.restaurant.repository;
 
 import com.cozycorner.restaurant.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,6 +29,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.role = 'DRIVER' AND u.isActive = true")
     List<User> findAvailableDrivers();
     
+    // Serializes assignments to one driver across instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+    
     // Find customers with loyalty points greater than a certain amount
     @Query("SELECT u FROM User u WHERE u.role = 'CUSTOMER' AND u.loyaltyPoints >= :minPoints")
     List<User> findCustomersWithMinLoyaltyPoints(@Param("minPoints") Integer minPoints);
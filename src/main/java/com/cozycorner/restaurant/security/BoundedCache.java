@@ -0,0 +1,104 @@
+package com.cozycorner.restaurant.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Size-bounded map for caches consulted on every request. Lookups and inserts go
+ * straight to a {@link ConcurrentHashMap} and never take a lock; a hit only flags its
+ * entry. Past the limit, entries are evicted oldest first, except that a flagged entry
+ * has its flag cleared and is passed over once (second-chance, or CLOCK, eviction),
+ * which approximates LRU without reordering anything on a read.
+ * <p>
+ * Removed and replaced entries keep their slot until the clock reaches them, so the
+ * limit bounds memory rather than guaranteeing that many live entries.
+ */
+final class BoundedCache<K, V> {
+
+    private final int maxEntries;
+    private final BiConsumer<K, V> onEvicted;
+    private final ConcurrentHashMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+    // Every node in insertion order, including ones since removed or replaced
+    private final ConcurrentLinkedQueue<Node<K, V>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger slots = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    BoundedCache(int maxEntries) {
+        this(maxEntries, (key, value) -> { });
+    }
+
+    BoundedCache(int maxEntries, BiConsumer<K, V> onEvicted) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.onEvicted = onEvicted;
+    }
+
+    V get(K key) {
+        Node<K, V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        // Only write when needed, so hot entries are not bounced between cores on every read
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        return node.value;
+    }
+
+    void put(K key, V value) {
+        Node<K, V> node = new Node<>(key, value);
+        entries.put(key, node);
+        clock.add(node);
+        if (slots.incrementAndGet() > maxEntries) {
+            evict();
+        }
+    }
+
+    void remove(K key) {
+        entries.remove(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // One thread evicts at a time; the others go on and the limit is briefly exceeded instead
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // One turn of the clock gives every entry its second chance; after that evict regardless
+            int secondChances = slots.get();
+            Node<K, V> node;
+            while (slots.get() > maxEntries && (node = clock.poll()) != null) {
+                if (entries.get(node.key) == node) {
+                    if (node.referenced && secondChances-- > 0) {
+                        node.referenced = false;
+                        clock.add(node);
+                        continue;
+                    }
+                    if (entries.remove(node.key, node)) {
+                        onEvicted.accept(node.key, node.value);
+                    }
+                }
+                slots.decrementAndGet();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private volatile boolean referenced;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.cozycorner.restaurant.security;
+
+import com.cozycorner.restaurant.entity.User;
+import com.cozycorner.restaurant.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads users for authentication through a bounded, expiring cache, so an authenticated
+ * request normally costs no query at all. Entries are snapshots, evicted as soon as the
+ * user is updated or deleted through JPA; the TTL bounds how long a change made any other
+ * way (or on another instance) can go unnoticed. Callers always get their own copy, since
+ * the authentication manager erases the password of the details it authenticated.
+ * <p>
+ * This runs on every authenticated request, so the cache is lock-free ({@link BoundedCache}),
+ * and a side map from user id to the email the user is cached under makes evicting a user
+ * a single lookup.
+ */
+@Service
+public class CachedUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.security.user-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.security.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Duration ttl;
+    private BoundedCache<String, Entry> entries;
+    private final ConcurrentHashMap<Long, String> emailsByUserId = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        ttl = Duration.ofSeconds(ttlSeconds);
+        entries = new BoundedCache<>(maxEntries, (email, entry) -> emailsByUserId.remove(entry.userId, email));
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt.isAfter(Instant.now())) {
+            return copyOf(entry.details);
+        }
+        User user = userRepository.findByEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        UserDetails details = org.springframework.security.core.userdetails.User.withUsername(user.getEmail())
+                .password(user.getPassword())
+                .authorities(user.getAuthorities())
+                .disabled(!user.isEnabled())
+                .build();
+        emailsByUserId.put(user.getId(), username);
+        entries.put(username, new Entry(user.getId(), details, Instant.now().plus(ttl)));
+        return copyOf(details);
+    }
+
+    // Called after a successful login whose stored hash is weaker than the configured strength
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newPassword).build();
+    }
+
+    private static UserDetails copyOf(UserDetails details) {
+        return org.springframework.security.core.userdetails.User.withUserDetails(details).build();
+    }
+
+    // Also drops entries cached under an email the user no longer has
+    public void evict(User user) {
+        entries.remove(user.getEmail());
+        String cachedUnder = emailsByUserId.remove(user.getId());
+        if (cachedUnder != null) {
+            entries.remove(cachedUnder);
+        }
+    }
+
+    /**
+     * Evicts users from the cache whenever they are saved or deleted through JPA, so role,
+     * status and password changes apply to the very next request.
+     */
+    public static class EntityListener {
+
+        // Looked up on use: listeners are built with the persistence unit, before this service exists
+        @Autowired
+        private ObjectProvider<CachedUserDetailsService> cachedUserDetailsServiceProvider;
+
+        @PostUpdate
+        @PostRemove
+        void onChanged(User user) {
+            CachedUserDetailsService cachedUserDetailsService = cachedUserDetailsServiceProvider.getObject();
+            cachedUserDetailsService.evict(user);
+            // Again once committed, in case a concurrent request cached the old row in between
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        cachedUserDetailsService.evict(user);
+                    }
+                });
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Long userId;
+        private final UserDetails details;
+        private final Instant expiresAt;
+
+        private Entry(Long userId, UserDetails details, Instant expiresAt) {
+            this.userId = userId;
+            this.details = details;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.cozycorner.restaurant.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -23,34 +33,57 @@ public class JwtTokenUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
+    @Value("${jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
 
-    public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // SHA-256 of the token -> its verified claims; shared by every request thread, so lock-free.
+    // Keyed by digest so lookups never compare attacker-supplied bytes against live tokens.
+    private BoundedCache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = new BoundedCache<>(verifiedCacheSize);
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+    /**
+     * Checks the token's signature and expiry and returns its claims. Each distinct token
+     * is parsed once; repeats are answered from a bounded cache until the token expires.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public VerifiedToken verify(String token) {
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokens.remove(key);
+            throw new ExpiredJwtException(null, cached.getClaims(), "JWT expired at " + cached.getExpiration());
+        }
+        VerifiedToken verified = new VerifiedToken(parser.parseSignedClaims(token).getPayload());
+        verifiedTokens.put(key, verified);
+        return verified;
     }
 
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+    public String getUsernameFromToken(String token) {
+        return verify(token).getUsername();
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Date getExpirationDateFromToken(String token) {
+        return verify(token).getExpiration();
     }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
+        return claimsResolver.apply(verify(token).getClaims());
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -58,49 +91,74 @@ public class JwtTokenUtil {
         return createToken(claims, userDetails.getUsername());
     }
 
+    // Roles and status travel signed in the token; the filter rejects it once they no longer match the user
     public String generateTokenWithAuthorities(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("authorities", userDetails.getAuthorities());
+        claims.put(VerifiedToken.AUTHORITIES_CLAIM, AuthorityUtils.authorityListToSet(userDetails.getAuthorities()).stream().sorted().toList());
+        claims.put(VerifiedToken.ACTIVE_CLAIM, userDetails.isEnabled());
         return createToken(claims, userDetails.getUsername());
     }
 
+    // Signed with the strongest HMAC algorithm the secret is long enough for (HS512 from 64 bytes).
+    // Every token gets a random ID (jti) so it can be revoked on its own.
     private String createToken(Map<String, Object> claims, String subject) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .claims(claims)
+                .id(UUID.randomUUID().toString())
+                .subject(subject)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(signingKey)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = getUsernameFromToken(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return verify(token).getUsername().equals(userDetails.getUsername());
         } catch (Exception e) {
             return false;
         }
     }
 
     public Boolean canTokenBeRefreshed(String token) {
-        return !isTokenExpired(token);
+        VerifiedToken verified = verify(token);
+        return !verified.isExpired() && !tokenRevocationService.isRevoked(verified);
     }
 
+    /**
+     * Issues a new token with the same claims and a new ID, and revokes the old one so a
+     * refresh does not leave two valid tokens behind.
+     *
+     * @throws JwtException if the token is invalid, expired or already revoked
+     */
     public String refreshToken(String token) {
         final Date createdDate = new Date();
         final Date expirationDate = new Date(createdDate.getTime() + expiration);
 
-        final Claims claims = getAllClaimsFromToken(token);
-        claims.setIssuedAt(createdDate);
-        claims.setExpiration(expirationDate);
+        final VerifiedToken current = verify(token);
+        if (tokenRevocationService.isRevoked(current)) {
+            throw new JwtException("JWT has been revoked");
+        }
 
-        return Jwts.builder()
-                .setClaims(claims)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+        String refreshed = Jwts.builder()
+                .claims(current.getClaims())
+                .id(UUID.randomUUID().toString())
+                .issuedAt(createdDate)
+                .expiration(expirationDate)
+                .signWith(signingKey)
                 .compact();
+        tokenRevocationService.revoke(current);
+        return refreshed;
+    }
+
+    private static String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,258 @@
+package com.cozycorner.restaurant.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiting for the endpoints open to anonymous clients. Each client gets
+ * one bucket per rule, keyed by username once the JWT filter has authenticated the request
+ * and by remote address otherwise. Rules are read from {@code app.rate-limit.rules} as
+ * {@code pattern[@ROLE]=requests/period} and tried in order; the first rule whose pattern
+ * and role match applies, and requests matching no rule are not limited.
+ * <p>
+ * A bucket is a single atomic timestamp (the generic cell rate algorithm, which admits
+ * exactly what a token bucket of the same size and refill rate would), kept in a
+ * {@link ConcurrentHashMap}, so the check never takes a lock. A bucket that has refilled
+ * completely behaves like a new one, so those are swept out periodically.
+ * <p>
+ * The map is capped at {@code app.rate-limit.max-buckets}. At the cap a request from a new
+ * client sweeps out full buckets on the spot (at most once a second), and if every bucket
+ * is still in use, new clients share one overflow bucket per rule until room frees up: a
+ * flood of distinct addresses is then limited as a whole instead of locking out everyone
+ * the map has not seen yet.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.rules:}")
+    private List<String> ruleSpecs;
+
+    @Value("${app.rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    private static final long INLINE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextInlineSweep = new AtomicLong(System.nanoTime());
+    private List<Rule> rules;
+    private Counter overflowed;
+
+    @PostConstruct
+    void init() {
+        rules = new ArrayList<>();
+        for (String spec : ruleSpecs) {
+            if (!spec.isBlank()) {
+                rules.add(Rule.parse(rules.size(), spec.trim(), meterRegistry));
+            }
+        }
+        Gauge.builder("http.rate_limit.buckets", buckets, ConcurrentHashMap::size).register(meterRegistry);
+        overflowed = meterRegistry.counter("http.rate_limit.overflowed");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || rules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Rule rule = findRule(request, authentication);
+        if (rule == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String client = authentication != null && authentication.isAuthenticated()
+                ? "user:" + authentication.getName()
+                : "ip:" + request.getRemoteAddr();
+        String key = rule.index + "|" + client;
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                sweepIfDue(now);
+            }
+            if (buckets.size() >= maxBuckets) {
+                // Every bucket is in use: limit the newcomer together with the others that did not fit
+                overflowed.increment();
+                bucket = rule.overflow;
+            } else {
+                bucket = buckets.computeIfAbsent(key, k -> new Bucket(rule, now));
+            }
+        }
+
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            reject(response, rule, waitNanos);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Drops buckets that have refilled completely. A request racing with the removal may
+     * spend a token from the dropped bucket, so a client can gain at most one extra request
+     * per sweep.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    // Called at the cap; one request sweeps while the others go on to the overflow bucket
+    private void sweepIfDue(long now) {
+        long due = nextInlineSweep.get();
+        if (now - due >= 0 && nextInlineSweep.compareAndSet(due, now + INLINE_SWEEP_INTERVAL_NANOS)) {
+            sweep();
+        }
+    }
+
+    private Rule findRule(HttpServletRequest request, Authentication authentication) {
+        for (Rule rule : rules) {
+            if (rule.matcher.matches(request) && rule.appliesTo(authentication)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static void reject(HttpServletResponse response, Rule rule, long waitNanos) throws IOException {
+        rule.rejected.increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getOutputStream().println("{ \"error\": \"Too Many Requests\", \"message\": \"Rate limit exceeded, retry in "
+                + retryAfterSeconds + " seconds\" }");
+    }
+
+    private static final class Rule {
+        private final int index;
+        private final RequestMatcher matcher;
+        private final String authority;
+        // One request's worth of refill, and the whole bucket's, in nanoseconds
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final Counter rejected;
+        // Shared by new clients while the bucket map is at its cap
+        private final Bucket overflow;
+
+        private Rule(int index, String pattern, String role, long requests, Duration period, MeterRegistry meterRegistry) {
+            this.index = index;
+            this.matcher = AntPathRequestMatcher.antMatcher(pattern);
+            this.authority = role == null ? null : "ROLE_" + role;
+            this.intervalNanos = Math.max(1, period.toNanos() / requests);
+            this.burstNanos = intervalNanos * requests;
+            this.rejected = Counter.builder("http.rate_limit.rejected")
+                    .tag("rule", role == null ? pattern : pattern + "@" + role)
+                    .register(meterRegistry);
+            this.overflow = new Bucket(this, System.nanoTime());
+        }
+
+        // e.g. "/auth/**=20/1m" or "/menu/**@ADMIN=600/1m"
+        static Rule parse(int index, String spec, MeterRegistry meterRegistry) {
+            int eq = spec.lastIndexOf('=');
+            int slash = spec.lastIndexOf('/');
+            if (eq < 1 || slash < eq) {
+                throw new IllegalArgumentException("Invalid rate limit rule '" + spec + "', expected pattern[@ROLE]=requests/period");
+            }
+            String target = spec.substring(0, eq).trim();
+            int at = target.indexOf('@');
+            String pattern = at < 0 ? target : target.substring(0, at).trim();
+            String role = at < 0 ? null : target.substring(at + 1).trim();
+            long requests;
+            Duration period;
+            try {
+                requests = Long.parseLong(spec.substring(eq + 1, slash).trim());
+                period = DurationStyle.detectAndParse(spec.substring(slash + 1).trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid rate limit rule '" + spec + "', expected pattern[@ROLE]=requests/period", e);
+            }
+            if (requests < 1 || period.isZero() || period.isNegative()) {
+                throw new IllegalArgumentException("Invalid rate limit rule '" + spec + "', requests and period must be positive");
+            }
+            return new Rule(index, pattern, role, requests, period, meterRegistry);
+        }
+
+        boolean appliesTo(Authentication authentication) {
+            if (authority == null) {
+                return true;
+            }
+            if (authentication == null || !authentication.isAuthenticated()) {
+                return false;
+            }
+            for (GrantedAuthority granted : authentication.getAuthorities()) {
+                if (authority.equals(granted.getAuthority())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Bucket {
+        private final Rule rule;
+        // When the bucket would be full again if nothing else arrived (System.nanoTime)
+        private final AtomicLong fullAt;
+
+        private Bucket(Rule rule, long now) {
+            this.rule = rule;
+            this.fullAt = new AtomicLong(now);
+        }
+
+        // Returns 0 when a token was taken, otherwise how long until one is available
+        long tryAcquire(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long next = (current - now > 0 ? current : now) + rule.intervalNanos;
+                long overdraft = next - now - rule.burstNanos;
+                if (overdraft > 0) {
+                    return overdraft;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return fullAt.get() - now <= 0;
+        }
+    }
+}
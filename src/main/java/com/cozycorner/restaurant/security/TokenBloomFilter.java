@@ -0,0 +1,91 @@
+package com.cozycorner.restaurant.security;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over token IDs. {@link #mightContain} never returns false for
+ * an added ID; it returns true for an absent one with roughly the configured probability.
+ * Bits can only be set, so the filter is rebuilt rather than shrunk as entries expire.
+ */
+final class TokenBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private TokenBloomFilter(long bitCount, int hashCount) {
+        int words = (int) Math.max(1, (bitCount + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = hashCount;
+    }
+
+    static TokenBloomFilter create(long expectedEntries, double falsePositiveRate) {
+        long n = Math.max(1, expectedEntries);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new TokenBloomFilter(m, k);
+    }
+
+    void add(String id) {
+        UUID uuid = parse(id);
+        long h1 = hash1(id, uuid);
+        long h2 = hash2(id, uuid);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(h1, h2, i);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                // Lost a race with another add; retry with the fresh word
+            }
+        }
+    }
+
+    boolean mightContain(String id) {
+        UUID uuid = parse(id);
+        long h1 = hash1(id, uuid);
+        long h2 = hash2(id, uuid);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(h1, h2, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Double hashing: bit i is h1 + i * h2, which behaves like k independent hashes
+    private long index(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, bitCount);
+    }
+
+    // Token IDs are random UUIDs, so their two halves are already well-mixed hash inputs
+    private static long hash1(String id, UUID uuid) {
+        return mix(uuid != null ? uuid.getMostSignificantBits() : id.hashCode());
+    }
+
+    private static long hash2(String id, UUID uuid) {
+        long h = uuid != null ? uuid.getLeastSignificantBits() : mix(id.hashCode()) ^ id.length();
+        return mix(h) | 1;
+    }
+
+    private static UUID parse(String id) {
+        if (id.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
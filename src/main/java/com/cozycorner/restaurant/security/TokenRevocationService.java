@@ -0,0 +1,181 @@
+package com.cozycorner.restaurant.security;
+
+import com.cozycorner.restaurant.entity.RevokedToken;
+import com.cozycorner.restaurant.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks revoked token IDs without adding a query to every request. The check runs
+ * against an in-memory Bloom filter of all unexpired revocations; only a filter hit (a
+ * revoked token, or the rare false positive) is confirmed against {@code revoked_tokens},
+ * and that answer is cached. Rows are kept until the token would have expired anyway.
+ * <p>
+ * The filter is rebuilt from the table on a schedule, which drops expired entries and
+ * picks up revocations made on other instances within one refresh interval.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.expiration}")
+    private long tokenLifetimeMs;
+
+    @Value("${app.security.revocation.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${app.security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.security.revocation.confirmation-cache-size:10000}")
+    private int confirmationCacheSize;
+
+    private final Object filterLock = new Object();
+    private volatile TokenBloomFilter filter;
+    private TransactionTemplate transactionTemplate;
+
+    // Token ID -> whether the table confirmed it as revoked, for IDs the filter flagged
+    private Map<String, Boolean> confirmations;
+
+    private Counter revokedHits;
+    private Counter falsePositives;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        confirmations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > confirmationCacheSize;
+            }
+        };
+        revokedHits = Counter.builder("security.tokens.revocation.lookups").tag("outcome", "revoked").register(meterRegistry);
+        falsePositives = Counter.builder("security.tokens.revocation.lookups").tag("outcome", "false_positive").register(meterRegistry);
+        // Before the first request, so tokens revoked before a restart stay revoked
+        refresh();
+    }
+
+    /**
+     * Whether the token has been revoked. Tokens issued without an ID cannot be revoked
+     * individually and are never reported as revoked.
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        String jti = token.getId();
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Boolean revoked;
+        synchronized (confirmations) {
+            revoked = confirmations.get(jti);
+        }
+        if (revoked == null) {
+            revoked = revokedTokenRepository.existsByJtiAndExpiresAtAfter(jti, LocalDateTime.now());
+            synchronized (confirmations) {
+                // A revocation recorded meanwhile wins over the answer read before it
+                Boolean current = confirmations.putIfAbsent(jti, revoked);
+                revoked = current != null ? current : revoked;
+            }
+        }
+        (revoked ? revokedHits : falsePositives).increment();
+        return revoked;
+    }
+
+    /**
+     * Revokes the token for the rest of its lifetime. Returns false for tokens issued
+     * without an ID.
+     */
+    public boolean revoke(VerifiedToken token) {
+        if (token.getId() == null) {
+            return false;
+        }
+        revoke(token.getId(), token.getExpiration());
+        return true;
+    }
+
+    /**
+     * Revokes a token known only by its ID. The entry is kept for the longest lifetime a
+     * token can have, since its actual expiry is unknown.
+     */
+    public void revoke(String jti) {
+        revoke(jti, new Date(System.currentTimeMillis() + tokenLifetimeMs));
+    }
+
+    // expiresAt only bounds how long the entry is kept, so it must not precede the token's own expiry
+    private void revoke(String jti, Date expiresAt) {
+        LocalDateTime expiry = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        transactionTemplate.executeWithoutResult(status -> {
+            RevokedToken revoked = revokedTokenRepository.findById(jti).orElseGet(() -> new RevokedToken(jti, expiry));
+            if (revoked.getExpiresAt().isBefore(expiry)) {
+                revoked.setExpiresAt(expiry);
+            }
+            revokedTokenRepository.save(revoked);
+        });
+        // Added under the lock so a concurrent rebuild cannot swap in a filter without it
+        synchronized (filterLock) {
+            filter.add(jti);
+        }
+        synchronized (confirmations) {
+            confirmations.put(jti, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Purges expired revocations and rebuilds the filter from the ones still in force,
+     * sized for at least twice their number so the false positive rate holds as it grows.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval-ms:60000}",
+               initialDelayString = "${app.security.revocation.refresh-interval-ms:60000}")
+    public void refresh() {
+        synchronized (filterLock) {
+            LocalDateTime now = LocalDateTime.now();
+            List<String> active;
+            try {
+                active = transactionTemplate.execute(status -> {
+                    int purged = revokedTokenRepository.deleteExpired(now);
+                    if (purged > 0) {
+                        log.debug("Purged {} expired token revocations", purged);
+                    }
+                    return revokedTokenRepository.findActiveJtis(now);
+                });
+            } catch (RuntimeException e) {
+                if (filter == null) {
+                    throw e;
+                }
+                log.warn("Could not refresh token revocations, keeping the current filter", e);
+                return;
+            }
+            TokenBloomFilter rebuilt = TokenBloomFilter.create(Math.max(expectedEntries, 2L * active.size()), falsePositiveRate);
+            active.forEach(rebuilt::add);
+            filter = rebuilt;
+            synchronized (confirmations) {
+                confirmations.clear();
+            }
+        }
+    }
+}
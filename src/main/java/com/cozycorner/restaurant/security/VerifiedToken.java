@@ -0,0 +1,64 @@
+package com.cozycorner.restaurant.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A token whose signature and expiry have been checked, with the claims it carried.
+ * Produced once per token by {@link JwtTokenUtil#verify}.
+ */
+public final class VerifiedToken {
+
+    static final String AUTHORITIES_CLAIM = "authorities";
+    static final String ACTIVE_CLAIM = "active";
+
+    private final String id;
+    private final String username;
+    private final Date expiration;
+    private final Claims claims;
+
+    VerifiedToken(Claims claims) {
+        this.id = claims.getId();
+        this.username = claims.getSubject();
+        this.expiration = claims.getExpiration();
+        this.claims = claims;
+    }
+
+    // The jti claim; null for tokens issued before tokens carried an ID
+    public String getId() { return id; }
+
+    public String getUsername() { return username; }
+
+    public Date getExpiration() { return expiration; }
+
+    public Claims getClaims() { return claims; }
+
+    /**
+     * Whether the token was issued with exactly the authorities and status the user has
+     * now. Tokens issued without those claims match any user.
+     */
+    public boolean matches(UserDetails userDetails) {
+        Object authorities = claims.get(AUTHORITIES_CLAIM);
+        if (authorities instanceof Collection<?>) {
+            Set<String> granted = new HashSet<>();
+            for (Object authority : (Collection<?>) authorities) {
+                granted.add(String.valueOf(authority));
+            }
+            if (!granted.equals(AuthorityUtils.authorityListToSet(userDetails.getAuthorities()))) {
+                return false;
+            }
+        }
+        Object active = claims.get(ACTIVE_CLAIM);
+        return !(active instanceof Boolean) || active.equals(userDetails.isEnabled());
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
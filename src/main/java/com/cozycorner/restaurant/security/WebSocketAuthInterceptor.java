@@ -0,0 +1,114 @@
+package com.cozycorner.restaurant.security;
+
+import com.cozycorner.restaurant.repository.OrderRepository;
+import com.cozycorner.restaurant.service.DeliveryTrackingPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Objects;
+
+/**
+ * Authenticates STOMP sessions and guards broker destinations. A client may pass its JWT
+ * in the CONNECT frame's {@code Authorization} header, checked the same way as
+ * {@link JwtAuthenticationFilter} checks HTTP requests; anonymous sessions can still
+ * follow the public topics. Order tracking topics may only be subscribed to by the
+ * order's customer or an admin, and clients may never publish to {@code /topic} since
+ * the simple broker would relay whatever they send to every subscriber.
+ */
+@Component
+public class WebSocketAuthInterceptor implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketAuthInterceptor.class);
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT) {
+            String header = accessor.getFirstNativeHeader("Authorization");
+            if (header != null && header.startsWith("Bearer ")) {
+                accessor.setUser(authenticate(header.substring(7)));
+            }
+        } else if (command == StompCommand.SUBSCRIBE) {
+            Long orderId = DeliveryTrackingPublisher.orderIdOf(accessor.getDestination());
+            if (orderId != null) {
+                checkCanTrack(accessor.getUser(), orderId);
+            }
+        } else if (command == StompCommand.SEND) {
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith("/topic")) {
+                throw new MessageDeliveryException("Clients cannot publish to " + destination);
+            }
+        }
+        return message;
+    }
+
+    private Authentication authenticate(String jwt) {
+        VerifiedToken token;
+        try {
+            token = jwtTokenUtil.verify(jwt);
+        } catch (Exception e) {
+            throw new MessageDeliveryException("Invalid or expired token");
+        }
+        if (tokenRevocationService.isRevoked(token)) {
+            throw new MessageDeliveryException("Token has been revoked");
+        }
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(token.getUsername());
+        } catch (UsernameNotFoundException e) {
+            throw new MessageDeliveryException("Invalid or expired token");
+        }
+        if (!token.getUsername().equals(userDetails.getUsername()) || !userDetails.isEnabled() || !token.matches(userDetails)) {
+            throw new MessageDeliveryException("Invalid or expired token");
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private void checkCanTrack(Principal user, Long orderId) {
+        if (!(user instanceof Authentication)) {
+            throw new MessageDeliveryException("Authentication required to track orders");
+        }
+        Authentication authentication = (Authentication) user;
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if (admin) {
+            return;
+        }
+        String customerEmail = orderRepository.findCustomerEmailById(orderId).orElse(null);
+        if (!Objects.equals(customerEmail, authentication.getName())) {
+            log.warn("User {} tried to track order {} of another customer", authentication.getName(), orderId);
+            throw new MessageDeliveryException("Not allowed to track order " + orderId);
+        }
+    }
+}
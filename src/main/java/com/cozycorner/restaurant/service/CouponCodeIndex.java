@@ -0,0 +1,339 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.entity.Coupon;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of active, unexpired coupon codes with their validity window, so
+ * checkout can turn away unknown and expired codes without a database round trip.
+ * <p>
+ * Codes of up to 12 digits and upper-case letters (every generated code) are packed into
+ * a sorted {@code long[]} with parallel id/window arrays, about 32 bytes per code; any
+ * other code goes into a small hash map. A bulk creation is merged into these arrays in
+ * one go. A coupon saved through JPA is recorded in a small overlay of changes once its
+ * transaction commits, and the overlay takes precedence over the arrays until the next
+ * periodic rebuild from the table. That rebuild also picks up anything changed behind
+ * the application's back and drops expired codes.
+ */
+@Service
+public class CouponCodeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponCodeIndex.class);
+
+    private static final int MAX_PACKED_LENGTH = 12;
+    private static final int RADIX = 37;
+
+    public static final class Match {
+        private final long couponId;
+        private final long validFrom;
+        private final long validUntil;
+
+        private Match(long couponId, long validFrom, long validUntil) {
+            this.couponId = couponId;
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+        }
+
+        public long getCouponId() { return couponId; }
+
+        // Same window as Coupon.isValid(), both ends exclusive
+        public boolean isCurrent(LocalDateTime now) {
+            long at = toSeconds(now);
+            return at > validFrom && at < validUntil;
+        }
+    }
+
+    public static final class Entry {
+        private final String code;
+        private final long couponId;
+        private final LocalDateTime validFrom;
+        private final LocalDateTime validUntil;
+
+        public Entry(String code, long couponId, LocalDateTime validFrom, LocalDateTime validUntil) {
+            this.code = code;
+            this.couponId = couponId;
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+        }
+
+        public String getCode() { return code; }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile Codes codes;
+
+    // Codes saved one at a time since the last rebuild; checked before the sorted arrays
+    private final ConcurrentHashMap<String, Change> changes = new ConcurrentHashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("coupons.index.size", this, index -> index.codes == null ? 0 : index.codes.size()).register(meterRegistry);
+    }
+
+    /**
+     * False until the first load finished; callers then have to ask the database.
+     */
+    public boolean isLoaded() {
+        return codes != null;
+    }
+
+    /**
+     * The indexed coupon for this code, or null when no active, unexpired coupon has it.
+     */
+    public Match find(String code) {
+        Codes current = codes;
+        if (current == null) {
+            return null;
+        }
+        if (!changes.isEmpty()) {
+            Change change = changes.get(code);
+            if (change != null) {
+                return change.window == null ? null : new Match(change.window[0], change.window[1], change.window[2]);
+            }
+        }
+        return current.find(code);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.coupons.index.refresh-interval-ms:300000}", initialDelayString = "${app.coupons.index.refresh-interval-ms:300000}")
+    public synchronized void reload() {
+        long started = System.nanoTime();
+        // Every change up to here was committed before the query below starts, so it sees them
+        long changesSeen = changeSequence.get();
+        List<long[]> rows = new ArrayList<>();
+        Map<String, long[]> unpacked = new HashMap<>();
+        jdbcTemplate.query("SELECT id, code, valid_from, valid_until FROM coupons " +
+                        "WHERE is_active = TRUE AND valid_until > ?",
+                rs -> {
+                    addRow(rows, unpacked, rs.getString("code"), rs.getLong("id"),
+                            rs.getTimestamp("valid_from"), rs.getTimestamp("valid_until"));
+                },
+                Timestamp.valueOf(LocalDateTime.now()));
+        codes = new Codes(rows, unpacked);
+        changes.values().removeIf(change -> change.sequence <= changesSeen);
+        log.debug("Coupon code index loaded {} codes in {} ms", codes.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Merges freshly created coupons into the index without waiting for the next reload.
+     * Meant for bulk creation: this rebuilds the sorted arrays, so single coupons go
+     * through {@link #put} instead.
+     */
+    public synchronized void addAll(Collection<Entry> entries) {
+        Codes current = codes;
+        if (current == null) {
+            // Not loaded yet; the first load runs after this and reads them from the table
+            return;
+        }
+        Map<String, Change> folded = new HashMap<>(changes);
+        Map<String, long[]> windows = new HashMap<>();
+        folded.forEach((code, change) -> windows.put(code, change.window));
+        for (Entry entry : entries) {
+            windows.put(entry.code, new long[] {entry.couponId, toSeconds(entry.validFrom), toSeconds(entry.validUntil)});
+        }
+        Set<Long> replacedKeys = new HashSet<>();
+        for (String code : windows.keySet()) {
+            replacedKeys.add(pack(code));
+        }
+
+        List<long[]> rows = new ArrayList<>(windows.size() + current.keys.length);
+        Map<String, long[]> unpacked = new HashMap<>(current.unpacked);
+        unpacked.keySet().removeAll(windows.keySet());
+        for (int i = 0; i < current.keys.length; i++) {
+            if (!replacedKeys.contains(current.keys[i])) {
+                rows.add(new long[] {current.keys[i], current.ids[i], current.validFrom[i], current.validUntil[i]});
+            }
+        }
+        windows.forEach((code, window) -> {
+            if (window != null) {
+                addRow(rows, unpacked, code, window);
+            }
+        });
+        codes = new Codes(rows, unpacked);
+        // Changes recorded meanwhile are newer than what was folded in and stay in the overlay
+        folded.forEach(changes::remove);
+    }
+
+    public void put(Entry entry) {
+        record(entry.code, new long[] {entry.couponId, toSeconds(entry.validFrom), toSeconds(entry.validUntil)});
+    }
+
+    public void remove(String code) {
+        record(code, null);
+    }
+
+    private void record(String code, long[] window) {
+        changes.put(code, new Change(changeSequence.incrementAndGet(), window));
+    }
+
+    /**
+     * Keeps the index in step with coupons saved through JPA; bulk inserts go through
+     * {@link #addAll} instead. The listener fires at flush, so the index is only changed
+     * once the transaction has committed.
+     */
+    public static class EntityListener {
+
+        @Autowired
+        private CouponCodeIndex couponCodeIndex;
+
+        @PostPersist
+        @PostUpdate
+        void onSaved(Coupon coupon) {
+            if (Boolean.TRUE.equals(coupon.getIsActive()) && coupon.getValidUntil().isAfter(LocalDateTime.now())) {
+                Entry entry = new Entry(coupon.getCode(), coupon.getId(), coupon.getValidFrom(), coupon.getValidUntil());
+                afterCommit(() -> couponCodeIndex.put(entry));
+            } else {
+                String code = coupon.getCode();
+                afterCommit(() -> couponCodeIndex.remove(code));
+            }
+        }
+
+        @PostRemove
+        void onRemoved(Coupon coupon) {
+            String code = coupon.getCode();
+            afterCommit(() -> couponCodeIndex.remove(code));
+        }
+
+        private static void afterCommit(Runnable change) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                change.run();
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        }
+    }
+
+    private static void addRow(List<long[]> rows, Map<String, long[]> unpacked, String code, long id,
+                               Timestamp validFrom, Timestamp validUntil) {
+        addRow(rows, unpacked, code, new long[] {id, toSeconds(validFrom.toLocalDateTime()), toSeconds(validUntil.toLocalDateTime())});
+    }
+
+    // window is {coupon id, valid from, valid until}
+    private static void addRow(List<long[]> rows, Map<String, long[]> unpacked, String code, long[] window) {
+        long key = pack(code);
+        if (key < 0) {
+            unpacked.put(code, window);
+        } else {
+            rows.add(new long[] {key, window[0], window[1], window[2]});
+        }
+    }
+
+    /**
+     * Base-37 packing, right-padded to 12 places: digits and upper-case letters map to
+     * 1..36, padding to 0. Returns -1 for codes that do not fit.
+     */
+    static long pack(String code) {
+        if (code.isEmpty() || code.length() > MAX_PACKED_LENGTH) {
+            return -1;
+        }
+        long key = 0;
+        for (int i = 0; i < MAX_PACKED_LENGTH; i++) {
+            int digit = 0;
+            if (i < code.length()) {
+                char c = code.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    digit = c - '0' + 1;
+                } else if (c >= 'A' && c <= 'Z') {
+                    digit = c - 'A' + 11;
+                } else {
+                    return -1;
+                }
+            }
+            key = key * RADIX + digit;
+        }
+        return key;
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class Change {
+        private final long sequence;
+        // null when the code was removed
+        private final long[] window;
+
+        private Change(long sequence, long[] window) {
+            this.sequence = sequence;
+            this.window = window;
+        }
+    }
+
+    private static final class Codes {
+        private final long[] keys;
+        private final long[] ids;
+        private final long[] validFrom;
+        private final long[] validUntil;
+        private final Map<String, long[]> unpacked;
+
+        private Codes(List<long[]> rows, Map<String, long[]> unpacked) {
+            long[][] sorted = rows.toArray(new long[0][]);
+            Arrays.sort(sorted, (a, b) -> Long.compare(a[0], b[0]));
+            this.keys = new long[sorted.length];
+            this.ids = new long[sorted.length];
+            this.validFrom = new long[sorted.length];
+            this.validUntil = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = sorted[i][0];
+                ids[i] = sorted[i][1];
+                validFrom[i] = sorted[i][2];
+                validUntil[i] = sorted[i][3];
+            }
+            this.unpacked = unpacked;
+        }
+
+        private Match find(String code) {
+            long key = pack(code);
+            if (key < 0) {
+                long[] window = unpacked.get(code);
+                return window == null ? null : new Match(window[0], window[1], window[2]);
+            }
+            int i = Arrays.binarySearch(keys, key);
+            return i < 0 ? null : new Match(ids[i], validFrom[i], validUntil[i]);
+        }
+
+        private int size() {
+            return keys.length + unpacked.size();
+        }
+    }
+}
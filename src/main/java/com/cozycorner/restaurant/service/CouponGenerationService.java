@@ -0,0 +1,179 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.BulkCouponRequest;
+import com.cozycorner.restaurant.dto.BulkCouponResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates large batches of coupons that share the same terms, typically single-use codes
+ * for a campaign. Codes are drawn from an alphabet without look-alike characters, checked
+ * against the run itself, the code index and the table, then inserted as JDBC batches in
+ * one transaction: either the whole run is created or none of it.
+ */
+@Service
+public class CouponGenerationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponGenerationService.class);
+
+    // No 0/O, 1/I: codes get typed in from flyers and receipts
+    private static final char[] ALPHABET = "23456789ABCDEFGHJKLMNPQRSTUVWXYZ".toCharArray();
+
+    // Keeps the chance that a fresh draw is already taken well under a percent
+    private static final int MIN_SPACE_PER_CODE = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO coupons (code, description, discount_type, discount_value, minimum_order_amount, " +
+            "maximum_discount_amount, usage_limit, usage_count, valid_from, valid_until, is_active, created_at) " +
+            "VALUES (:code, :description, :discountType, :discountValue, :minimumOrderAmount, " +
+            ":maximumDiscountAmount, :usageLimit, 0, :validFrom, :validUntil, TRUE, :createdAt)";
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CouponCodeIndex couponCodeIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.coupons.bulk.batch-size:1000}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkCouponResult generate(BulkCouponRequest request) {
+        if (!request.getValidUntil().isAfter(request.getValidFrom())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Valid until must be after valid from");
+        }
+        if (Math.pow(ALPHABET.length, request.getCodeLength()) < (double) request.getCount() * MIN_SPACE_PER_CODE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Code length " + request.getCodeLength() + " is too short for " + request.getCount() + " codes");
+        }
+
+        long started = System.nanoTime();
+        LocalDateTime createdAt = LocalDateTime.now();
+        CodeDraw draw = new CodeDraw(request);
+        List<CouponCodeIndex.Entry> created = new ArrayList<>(request.getCount());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int offset = 0; offset < request.getCount(); offset += batchSize) {
+                    List<String> codes = draw.next(Math.min(batchSize, request.getCount() - offset));
+                    // Inactive and expired coupons are not in the index but still own their code
+                    List<String> taken;
+                    while (!(taken = existingCodes(codes)).isEmpty()) {
+                        codes.removeAll(taken);
+                        draw.redrawn += taken.size();
+                        codes.addAll(draw.next(taken.size()));
+                    }
+                    insert(codes, request, createdAt, created);
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            // Another run claimed one of our codes between the check and the insert
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Coupon code collision, please retry");
+        }
+
+        couponCodeIndex.addAll(created);
+        meterRegistry.counter("coupons.generated").increment(created.size());
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Generated {} coupons ({} codes redrawn) in {} ms", created.size(), draw.redrawn, elapsedMillis);
+
+        List<String> codes = new ArrayList<>(created.size());
+        for (CouponCodeIndex.Entry entry : created) {
+            codes.add(entry.getCode());
+        }
+        return new BulkCouponResult(created.size(), draw.redrawn, elapsedMillis, codes);
+    }
+
+    private List<String> existingCodes(List<String> codes) {
+        return jdbcTemplate.queryForList("SELECT code FROM coupons WHERE code IN (:codes)",
+                new MapSqlParameterSource("codes", codes), String.class);
+    }
+
+    private void insert(List<String> codes, BulkCouponRequest request, LocalDateTime createdAt, List<CouponCodeIndex.Entry> created) {
+        MapSqlParameterSource[] batch = new MapSqlParameterSource[codes.size()];
+        for (int i = 0; i < codes.size(); i++) {
+            batch[i] = new MapSqlParameterSource("code", codes.get(i))
+                    .addValue("description", request.getDescription())
+                    .addValue("discountType", request.getDiscountType().name())
+                    .addValue("discountValue", request.getDiscountValue())
+                    .addValue("minimumOrderAmount", request.getMinimumOrderAmount())
+                    .addValue("maximumDiscountAmount", request.getMaximumDiscountAmount())
+                    .addValue("usageLimit", request.getUsageLimit())
+                    .addValue("validFrom", Timestamp.valueOf(request.getValidFrom()))
+                    .addValue("validUntil", Timestamp.valueOf(request.getValidUntil()))
+                    .addValue("createdAt", Timestamp.valueOf(createdAt));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+
+        // Ids are generated by the table; read them back for the index
+        jdbcTemplate.query("SELECT id, code FROM coupons WHERE code IN (:codes)",
+                new MapSqlParameterSource("codes", codes),
+                rs -> {
+                    created.add(new CouponCodeIndex.Entry(rs.getString("code"), rs.getLong("id"),
+                            request.getValidFrom(), request.getValidUntil()));
+                });
+    }
+
+    // Random codes for one run, never repeating a code already drawn or held by the index
+    private final class CodeDraw {
+        private final String prefix;
+        private final int length;
+        private final Set<String> drawn;
+        private int redrawn;
+
+        private CodeDraw(BulkCouponRequest request) {
+            this.prefix = request.getPrefix() == null ? "" : request.getPrefix();
+            this.length = request.getCodeLength();
+            this.drawn = new HashSet<>(request.getCount() * 2);
+        }
+
+        private List<String> next(int count) {
+            List<String> codes = new ArrayList<>(count);
+            while (codes.size() < count) {
+                StringBuilder code = new StringBuilder(prefix.length() + length).append(prefix);
+                for (int i = 0; i < length; i++) {
+                    code.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+                }
+                String candidate = code.toString();
+                if (drawn.add(candidate) && couponCodeIndex.find(candidate) == null) {
+                    codes.add(candidate);
+                } else {
+                    redrawn++;
+                }
+            }
+            return codes;
+        }
+    }
+}
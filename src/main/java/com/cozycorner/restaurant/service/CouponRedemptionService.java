@@ -0,0 +1,236 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.entity.Coupon;
+import com.cozycorner.restaurant.entity.CouponRedemption;
+import com.cozycorner.restaurant.repository.CouponRedemptionRepository;
+import com.cozycorner.restaurant.repository.CouponRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts coupon uses in memory so a flash promo does not serialize every checkout on one
+ * coupon row. Each coupon gets a counter seeded from {@code coupons.usage_count}; a use is
+ * reserved with a compare-and-set against {@code usageLimit}, given back if the order's
+ * transaction rolls back, and added to the table by a background flush once committed.
+ * <p>
+ * Each use also inserts a {@link CouponRedemption} row in the order's transaction, and the
+ * flush deletes the rows of the uses it adds to the table in the same transaction. The
+ * rows left at any time are therefore exactly the committed uses the count is missing:
+ * on startup, uses lost to a crash between commit and flush are added back from them,
+ * however the count was set and whether or not their orders have been archived since.
+ * Limits are exact for a single instance, like the other in-memory stores in this service.
+ */
+@Service
+public class CouponRedemptionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponRedemptionService.class);
+
+    // Keeps the IN list of the redemption delete within what every database accepts
+    private static final int DELETE_CHUNK = 1000;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponRedemptionRepository couponRedemptionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.coupons.counter-idle-minutes:10}")
+    private long counterIdleMinutes;
+
+    private final Map<Long, UsageCounter> counters = new ConcurrentHashMap<>();
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Before the first checkout, so no counter is seeded from a count a crash left behind
+        int reconciled = transactionTemplate.execute(status -> {
+            int coupons = couponRepository.addUnflushedRedemptions();
+            couponRedemptionRepository.deleteAllInBatch();
+            return coupons;
+        });
+        if (reconciled > 0) {
+            log.warn("Restored unflushed uses of {} coupons from the redemption log", reconciled);
+        }
+        Gauge.builder("coupons.redemption.unflushed", this, CouponRedemptionService::unflushedUses).register(meterRegistry);
+    }
+
+    /**
+     * Takes one use of the coupon for the current transaction. Returns false once the
+     * coupon is used up. The use is returned automatically if the transaction rolls back.
+     */
+    public boolean reserve(Coupon coupon) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Coupon uses must be reserved inside a transaction");
+        }
+        while (true) {
+            UsageCounter counter = counters.computeIfAbsent(coupon.getId(), id ->
+                    new UsageCounter(couponRepository.findUsageCount(id).orElse(0)));
+            counter.limit = coupon.getUsageLimit();
+            int result = counter.tryReserve();
+            if (result == UsageCounter.RETIRED) {
+                counters.remove(coupon.getId(), counter);
+                continue;
+            }
+            if (result == UsageCounter.EXHAUSTED) {
+                return false;
+            }
+            Long redemptionId;
+            try {
+                redemptionId = couponRedemptionRepository.save(new CouponRedemption(coupon.getId())).getId();
+            } catch (RuntimeException e) {
+                counter.complete(null);
+                throw e;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    counter.complete(status == STATUS_COMMITTED ? redemptionId : null);
+                }
+            });
+            return true;
+        }
+    }
+
+    /**
+     * Writes committed uses to the coupons table and drops their redemption rows. Failed
+     * writes are kept for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.coupons.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<Long, Integer> pending = new LinkedHashMap<>();
+        Map<UsageCounter, List<Long>> taken = new LinkedHashMap<>();
+        List<Long> redemptionIds = new ArrayList<>();
+        counters.forEach((id, counter) -> {
+            List<Long> ids = counter.drainUnflushed();
+            if (!ids.isEmpty()) {
+                pending.put(id, ids.size());
+                taken.put(counter, ids);
+                redemptionIds.addAll(ids);
+            }
+        });
+        if (!pending.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    pending.forEach(couponRepository::addUsage);
+                    for (int from = 0; from < redemptionIds.size(); from += DELETE_CHUNK) {
+                        couponRedemptionRepository.deleteAllByIdInBatch(
+                                redemptionIds.subList(from, Math.min(from + DELETE_CHUNK, redemptionIds.size())));
+                    }
+                });
+            } catch (RuntimeException e) {
+                taken.forEach((counter, ids) -> counter.unflushed.addAll(ids));
+                log.warn("Coupon usage flush failed, will retry: {}", e.getMessage());
+                return;
+            }
+        }
+
+        long idleBefore = System.nanoTime() - TimeUnit.MINUTES.toNanos(counterIdleMinutes);
+        counters.forEach((id, counter) -> {
+            if (counter.lastUsed < idleBefore && counter.retire()) {
+                counters.remove(id, counter);
+            }
+        });
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private int unflushedUses() {
+        int total = 0;
+        for (UsageCounter counter : counters.values()) {
+            total += counter.unflushed.size();
+        }
+        return total;
+    }
+
+    private static final class UsageCounter {
+        static final int RESERVED = 0;
+        static final int EXHAUSTED = 1;
+        static final int RETIRED = 2;
+
+        // Uses known to the table plus uses reserved here; -1 once the counter is retired
+        private final AtomicInteger used;
+        // Reserved by transactions that have not finished yet
+        private final AtomicInteger inFlight = new AtomicInteger();
+        // Redemption rows of uses committed but not yet written to the table
+        private final Queue<Long> unflushed = new ConcurrentLinkedQueue<>();
+        private volatile Integer limit;
+        private volatile long lastUsed = System.nanoTime();
+
+        private UsageCounter(int used) {
+            this.used = new AtomicInteger(used);
+        }
+
+        int tryReserve() {
+            // Counted in flight before touching used, so retire() cannot miss this reservation
+            inFlight.incrementAndGet();
+            while (true) {
+                int current = used.get();
+                if (current < 0 || (limit != null && current >= limit)) {
+                    inFlight.decrementAndGet();
+                    return current < 0 ? RETIRED : EXHAUSTED;
+                }
+                if (used.compareAndSet(current, current + 1)) {
+                    lastUsed = System.nanoTime();
+                    return RESERVED;
+                }
+            }
+        }
+
+        // Null when the use was rolled back
+        void complete(Long redemptionId) {
+            if (redemptionId != null) {
+                unflushed.add(redemptionId);
+            } else {
+                used.decrementAndGet();
+            }
+            inFlight.decrementAndGet();
+        }
+
+        List<Long> drainUnflushed() {
+            List<Long> ids = new ArrayList<>();
+            Long id;
+            while ((id = unflushed.poll()) != null) {
+                ids.add(id);
+            }
+            return ids;
+        }
+
+        // Only once nothing is in flight or unflushed; the next use reseeds from the table
+        boolean retire() {
+            int current = used.get();
+            return current >= 0 && inFlight.get() == 0 && unflushed.isEmpty() && used.compareAndSet(current, -1);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.DeliveryPosition;
+import com.cozycorner.restaurant.repository.DeliveryLocationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for driver positions. Each update replaces the delivery's latest
+ * position in memory; a background flush writes only the latest one per delivery to
+ * {@code deliveries} in JDBC batches, so a driver pinging every few seconds costs one row
+ * write per flush interval instead of an entity load and save per ping. Current positions
+ * are read from memory.
+ * <p>
+ * Positions received since the last flush are lost on a crash; the next ping replaces
+ * them. Like the other in-memory stores in this service, reads see only updates received
+ * by this instance.
+ */
+@Service
+public class DeliveryLocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryLocationService.class);
+
+    private static final Set<String> TRACKED_STATUSES = Set.of("ASSIGNED", "PICKED_UP", "ON_THE_WAY");
+
+    @Autowired
+    private DeliveryLocationRepository deliveryLocationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DriverLocationIndex driverLocationIndex;
+
+    @Autowired
+    private DeliveryTrackingPublisher deliveryTrackingPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.deliveries.location.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.deliveries.location.idle-minutes:30}")
+    private long idleMinutes;
+
+    private final Map<Long, TrackedDelivery> tracked = new ConcurrentHashMap<>();
+    private TransactionTemplate transactionTemplate;
+
+    private Counter updatesReceived;
+    private Counter updatesOutOfOrder;
+    private Counter positionsWritten;
+    private Timer flushLag;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        updatesReceived = meterRegistry.counter("deliveries.location.updates");
+        updatesOutOfOrder = meterRegistry.counter("deliveries.location.updates.out_of_order");
+        positionsWritten = meterRegistry.counter("deliveries.location.writes");
+        // Time from receiving a position to writing it; updates replaced before a flush are not counted
+        flushLag = Timer.builder("deliveries.location.flush.lag").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        Gauge.builder("deliveries.location.tracked", tracked, Map::size).register(meterRegistry);
+        Gauge.builder("deliveries.location.unflushed", this, DeliveryLocationService::unflushedCount).register(meterRegistry);
+    }
+
+    /**
+     * Records a position reported by the driver assigned to the delivery. Only the first
+     * update for a delivery reads the database, to check the assignment.
+     */
+    public DeliveryPosition record(Long deliveryId, String driverEmail, double latitude, double longitude, Instant recordedAt) {
+        TrackedDelivery delivery = tracked.get(deliveryId);
+        if (delivery == null) {
+            TrackedDelivery loaded = loadAssignment(deliveryId);
+            TrackedDelivery existing = tracked.putIfAbsent(deliveryId, loaded);
+            delivery = existing != null ? existing : loaded;
+        }
+        if (!Objects.equals(delivery.driverEmail, driverEmail)) {
+            // Possibly reassigned since tracking started; only the database can tell
+            TrackedDelivery reloaded = loadAssignment(deliveryId);
+            if (!Objects.equals(reloaded.driverEmail, driverEmail)) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Delivery is assigned to another driver");
+            }
+            tracked.put(deliveryId, reloaded);
+            delivery = reloaded;
+        }
+
+        Instant now = Instant.now();
+        // Device clocks run ahead at times; never let one fix mask every later one
+        Instant fixTime = recordedAt == null || recordedAt.isAfter(now) ? now : recordedAt;
+        updatesReceived.increment();
+        Position fix = new Position(latitude, longitude, fixTime, System.nanoTime());
+        Position position = delivery.update(fix);
+        if (position != fix) {
+            updatesOutOfOrder.increment();
+        } else {
+            // Keeps dispatch aware of where busy drivers are, so they are placed right once free
+            driverLocationIndex.update(delivery.driverId, latitude, longitude, null);
+            deliveryTrackingPublisher.positionChanged(delivery.destination, deliveryId, latitude, longitude, fixTime);
+        }
+        return position.toDto(deliveryId);
+    }
+
+    /**
+     * Latest position of the delivery: from memory while it is being tracked, otherwise
+     * the last one written. Empty if the delivery does not exist.
+     */
+    public Optional<DeliveryPosition> getPosition(Long deliveryId) {
+        TrackedDelivery delivery = tracked.get(deliveryId);
+        Position position = delivery == null ? null : delivery.latest;
+        if (position != null) {
+            return Optional.of(position.toDto(deliveryId));
+        }
+        return deliveryLocationRepository.findPosition(deliveryId);
+    }
+
+    /**
+     * Writes the latest unwritten position of every tracked delivery. Deliveries that are
+     * no longer in progress for their driver, or have been idle too long, stop being
+     * tracked. Failed batches stay pending for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.deliveries.location.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        Instant idleBefore = Instant.now().minus(Duration.ofMinutes(idleMinutes));
+        List<Long> ids = new ArrayList<>();
+        List<TrackedDelivery> deliveries = new ArrayList<>();
+        List<Position> positions = new ArrayList<>();
+        tracked.forEach((id, delivery) -> {
+            Position latest = delivery.latest;
+            if (latest != null && latest != delivery.flushed) {
+                ids.add(id);
+                deliveries.add(delivery);
+                positions.add(latest);
+            } else if (delivery.lastSeen.isBefore(idleBefore)) {
+                tracked.remove(id, delivery);
+            }
+        });
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, ids.size());
+            List<DeliveryLocationRepository.PositionWrite> writes = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                Position position = positions.get(i);
+                writes.add(new DeliveryLocationRepository.PositionWrite(ids.get(i), deliveries.get(i).driverId,
+                        position.latitude, position.longitude, position.recordedAt));
+            }
+            boolean[] updated;
+            try {
+                updated = transactionTemplate.execute(status -> deliveryLocationRepository.updatePositions(writes));
+            } catch (DataAccessException e) {
+                log.warn("Failed to write {} delivery positions, will retry", writes.size(), e);
+                return;
+            }
+            long now = System.nanoTime();
+            for (int i = from; i < to; i++) {
+                TrackedDelivery delivery = deliveries.get(i);
+                Position position = positions.get(i);
+                if (updated[i - from]) {
+                    delivery.flushed = position;
+                    positionsWritten.increment();
+                    flushLag.record(Duration.ofNanos(now - position.receivedNanos));
+                } else {
+                    // Completed, reassigned or archived since tracking started; the next ping re-checks
+                    tracked.remove(ids.get(i), delivery);
+                }
+            }
+        }
+    }
+
+    private TrackedDelivery loadAssignment(Long deliveryId) {
+        DeliveryLocationRepository.Assignment assignment = deliveryLocationRepository.findAssignment(deliveryId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Delivery not found"));
+        if (!TRACKED_STATUSES.contains(assignment.getStatus()) || assignment.getDriverId() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Delivery is not in progress");
+        }
+        DeliveryTrackingPublisher.Destination destination = new DeliveryTrackingPublisher.Destination(assignment.getOrderId(),
+                assignment.getDestinationLatitude(), assignment.getDestinationLongitude(), assignment.getEstimatedArrival());
+        return new TrackedDelivery(assignment.getDriverId(), assignment.getDriverEmail(), destination);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private double unflushedCount() {
+        int count = 0;
+        for (TrackedDelivery delivery : tracked.values()) {
+            if (delivery.latest != null && delivery.latest != delivery.flushed) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static final class TrackedDelivery {
+        private final long driverId;
+        private final String driverEmail;
+        private final DeliveryTrackingPublisher.Destination destination;
+        private volatile Position latest;
+        private volatile Position flushed;
+        private volatile Instant lastSeen = Instant.now();
+
+        private TrackedDelivery(long driverId, String driverEmail, DeliveryTrackingPublisher.Destination destination) {
+            this.driverId = driverId;
+            this.driverEmail = driverEmail;
+            this.destination = destination;
+        }
+
+        // Keeps whichever fix is newer and returns it
+        private synchronized Position update(Position position) {
+            lastSeen = Instant.now();
+            Position current = latest;
+            if (current != null && position.recordedAt.isBefore(current.recordedAt)) {
+                return current;
+            }
+            latest = position;
+            return position;
+        }
+    }
+
+    private static final class Position {
+        private final double latitude;
+        private final double longitude;
+        private final Instant recordedAt;
+        private final long receivedNanos;
+
+        private Position(double latitude, double longitude, Instant recordedAt, long receivedNanos) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.recordedAt = recordedAt;
+            this.receivedNanos = receivedNanos;
+        }
+
+        private DeliveryPosition toDto(Long deliveryId) {
+            return new DeliveryPosition(deliveryId, latitude, longitude, recordedAt);
+        }
+    }
+}
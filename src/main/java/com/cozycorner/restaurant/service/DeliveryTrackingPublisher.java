@@ -0,0 +1,191 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.DeliveryTrackingUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes live driver positions and ETAs to {@code /topic/orders/{orderId}/tracking}, so
+ * customers watching an order subscribe once instead of polling its delivery. Positions
+ * from {@link DeliveryLocationService} only replace the order's latest fix; a scheduled
+ * tick publishes each order that changed since the previous tick, once. Every subscriber
+ * therefore gets at most one frame per order per interval however often the driver
+ * reports, and the cost of a tick depends on how many drivers moved, not on how many
+ * clients watch them. Nothing here reads the database.
+ * <p>
+ * Frames carry a sequence number and publish time as native headers, which
+ * {@link TrackingFrameInterceptor} uses to skip frames that a slow client would only
+ * receive after a newer one, or too late to be useful.
+ */
+@Service
+public class DeliveryTrackingPublisher {
+
+    public static final String TOPIC_PREFIX = "/topic/orders/";
+    public static final String TOPIC_SUFFIX = "/tracking";
+    public static final String SEQUENCE_HEADER = "tracking-seq";
+    public static final String PUBLISHED_AT_HEADER = "tracking-published-at";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.tracking.average-speed-kmh:25}")
+    private double averageSpeedKmh;
+
+    @Value("${app.tracking.idle-minutes:30}")
+    private long idleMinutes;
+
+    private final Map<Long, TrackedOrder> orders = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private Counter framesPublished;
+
+    @PostConstruct
+    void init() {
+        framesPublished = meterRegistry.counter("tracking.frames.published");
+        Gauge.builder("tracking.orders", orders, Map::size).register(meterRegistry);
+    }
+
+    public static String topicFor(Long orderId) {
+        return TOPIC_PREFIX + orderId + TOPIC_SUFFIX;
+    }
+
+    /**
+     * The order id of a tracking topic, or null if the destination is not one.
+     */
+    public static Long orderIdOf(String destination) {
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX) || !destination.endsWith(TOPIC_SUFFIX)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(destination.substring(TOPIC_PREFIX.length(), destination.length() - TOPIC_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Makes the fix the order's latest unless a newer one is already pending. It goes out
+     * with the next tick.
+     */
+    public void positionChanged(Destination destination, Long deliveryId, double latitude, double longitude, Instant recordedAt) {
+        if (destination.orderId == null) {
+            return;
+        }
+        orders.computeIfAbsent(destination.orderId, id -> new TrackedOrder())
+                .offer(new Fix(destination, deliveryId, latitude, longitude, recordedAt));
+    }
+
+    // New subscribers get the latest fix with the next tick rather than waiting for the driver to move
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        Long orderId = orderIdOf(SimpMessageHeaderAccessor.getDestination(event.getMessage().getHeaders()));
+        TrackedOrder order = orderId == null ? null : orders.get(orderId);
+        if (order != null && order.latest != null) {
+            order.dirty.set(true);
+        }
+    }
+
+    /**
+     * Publishes the latest fix of every order that changed since the last run, and stops
+     * tracking orders whose driver has not reported for a while.
+     */
+    @Scheduled(fixedRateString = "${app.tracking.publish-interval-ms:1000}")
+    public void publish() {
+        Instant now = Instant.now();
+        Instant idleBefore = now.minus(Duration.ofMinutes(idleMinutes));
+        orders.forEach((orderId, order) -> {
+            if (order.dirty.getAndSet(false)) {
+                send(orderId, order.latest, now);
+            } else if (order.lastUpdate.isBefore(idleBefore)) {
+                orders.remove(orderId, order);
+            }
+        });
+    }
+
+    private void send(Long orderId, Fix fix, Instant now) {
+        Double remainingKm = null;
+        Instant estimatedArrival = fix.destination.estimatedArrival;
+        if (fix.destination.latitude != null && fix.destination.longitude != null) {
+            double distanceKm = DriverLocationIndex.distanceKm(fix.latitude, fix.longitude,
+                    fix.destination.latitude, fix.destination.longitude);
+            remainingKm = Math.round(distanceKm * 100) / 100.0;
+            estimatedArrival = now.plusSeconds(Math.round(distanceKm / averageSpeedKmh * 3600));
+        }
+        DeliveryTrackingUpdate update = new DeliveryTrackingUpdate(orderId, fix.deliveryId, fix.latitude, fix.longitude,
+                fix.recordedAt, remainingKm, estimatedArrival);
+        Map<String, Object> headers = Map.of(
+                SEQUENCE_HEADER, String.valueOf(sequence.incrementAndGet()),
+                PUBLISHED_AT_HEADER, String.valueOf(now.toEpochMilli()));
+        messagingTemplate.convertAndSend(topicFor(orderId), update, headers);
+        framesPublished.increment();
+    }
+
+    /**
+     * Where a delivery is going, as known when its tracking started.
+     */
+    public static final class Destination {
+        private final Long orderId;
+        private final Double latitude;
+        private final Double longitude;
+        private final Instant estimatedArrival;
+
+        public Destination(Long orderId, Double latitude, Double longitude, Instant estimatedArrival) {
+            this.orderId = orderId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.estimatedArrival = estimatedArrival;
+        }
+    }
+
+    private static final class TrackedOrder {
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private volatile Fix latest;
+        private volatile Instant lastUpdate = Instant.now();
+
+        // Fixes can arrive out of order from concurrent requests; the newest one wins
+        private synchronized void offer(Fix fix) {
+            lastUpdate = Instant.now();
+            Fix current = latest;
+            if (current != null && fix.recordedAt.isBefore(current.recordedAt)) {
+                return;
+            }
+            latest = fix;
+            dirty.set(true);
+        }
+    }
+
+    private static final class Fix {
+        private final Destination destination;
+        private final Long deliveryId;
+        private final double latitude;
+        private final double longitude;
+        private final Instant recordedAt;
+
+        private Fix(Destination destination, Long deliveryId, double latitude, double longitude, Instant recordedAt) {
+            this.destination = destination;
+            this.deliveryId = deliveryId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.recordedAt = recordedAt;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.DispatchResult;
+import com.cozycorner.restaurant.dto.DriverCandidate;
+import com.cozycorner.restaurant.entity.Delivery;
+import com.cozycorner.restaurant.entity.Order;
+import com.cozycorner.restaurant.entity.User;
+import com.cozycorner.restaurant.repository.DeliveryRepository;
+import com.cozycorner.restaurant.repository.OrderRepository;
+import com.cozycorner.restaurant.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assigns delivery orders to the nearest available driver using {@link DriverLocationIndex}.
+ * A driver is claimed in memory first, so concurrent dispatches on this instance never
+ * contend for the same driver, and then assigned in a transaction that locks the driver's
+ * row and re-checks that they have no delivery in progress, which keeps assignments
+ * exclusive across instances too.
+ * <p>
+ * Busy flags are reconciled from {@code deliveries} on a schedule, which is how drivers
+ * become available again once their delivery is finished.
+ */
+@Service
+public class DispatchService {
+
+    private static final Set<Delivery.DeliveryStatus> IN_PROGRESS = EnumSet.of(
+            Delivery.DeliveryStatus.ASSIGNED, Delivery.DeliveryStatus.PICKED_UP, Delivery.DeliveryStatus.ON_THE_WAY);
+
+    @Autowired
+    private DriverLocationIndex driverLocationIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.dispatch.candidates:5}")
+    private int candidates;
+
+    @Value("${app.dispatch.max-radius-km:10}")
+    private double maxRadiusKm;
+
+    @Value("${app.dispatch.reconcile-interval-ms:15000}")
+    private long reconcileIntervalMs;
+
+    // Driver email -> user id, so position reports do not need a query each
+    private final Map<String, Long> driverIds = new ConcurrentHashMap<>();
+    private TransactionTemplate transactionTemplate;
+    private Timer nearestTimer;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        nearestTimer = Timer.builder("dispatch.nearest").publishPercentiles(0.5, 0.99).register(meterRegistry);
+    }
+
+    /**
+     * Records where a driver is while not on a delivery, and optionally whether they are
+     * on shift. Positions sent during a delivery reach the index through
+     * {@link DeliveryLocationService}.
+     */
+    public void reportPosition(String driverEmail, double latitude, double longitude, Boolean onShift) {
+        Long driverId = driverIds.get(driverEmail);
+        if (driverId == null) {
+            driverId = userRepository.findByEmail(driverEmail)
+                    .filter(user -> user.getRole() == User.Role.DRIVER)
+                    .map(User::getId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Driver not found"));
+            driverIds.put(driverEmail, driverId);
+        }
+        driverLocationIndex.update(driverId, latitude, longitude, onShift);
+    }
+
+    public List<DriverCandidate> findNearest(double latitude, double longitude, int limit) {
+        return findCandidates(latitude, longitude, limit).stream()
+                .map(candidate -> new DriverCandidate(candidate.getDriver().getId(), candidate.getDriver().getLatitude(),
+                        candidate.getDriver().getLongitude(), candidate.getDistanceKm()))
+                .toList();
+    }
+
+    /**
+     * Assigns the order's delivery to the nearest available driver, creating the delivery
+     * if the order has none yet. Candidates that turn out to be busy are skipped.
+     */
+    public DispatchResult assignNearest(Long orderId, double latitude, double longitude) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+        if (order.getOrderType() != Order.OrderType.DELIVERY) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Pickup orders are not delivered");
+        }
+        if (order.getStatus().isTerminal()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Order is already " + order.getStatus());
+        }
+
+        for (DriverLocationIndex.Candidate candidate : findCandidates(latitude, longitude, candidates)) {
+            DriverLocationIndex.Driver driver = candidate.getDriver();
+            if (!driver.tryClaim()) {
+                continue;
+            }
+            Delivery delivery;
+            try {
+                delivery = transactionTemplate.execute(status -> assign(orderId, driver, latitude, longitude));
+            } catch (DataIntegrityViolationException e) {
+                // Another dispatch created the order's delivery first
+                driver.release();
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Order already has a driver");
+            } catch (RuntimeException e) {
+                driver.release();
+                throw e;
+            }
+            if (delivery != null) {
+                return new DispatchResult(orderId, delivery.getId(), driver.getId(), delivery.getDriver().getName(), candidate.getDistanceKm());
+            }
+            // Busy or no longer a driver according to the database; the claim stays until reconciled
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "No available driver within " + maxRadiusKm + " km");
+    }
+
+    /**
+     * Sets each indexed driver's busy flag from the deliveries in progress. Claims newer
+     * than one interval are kept, since their assignment may not have committed yet.
+     */
+    @Scheduled(fixedDelayString = "${app.dispatch.reconcile-interval-ms:15000}")
+    public void reconcile() {
+        Set<Long> busy = new HashSet<>(deliveryRepository.findDriverIdsWithStatusIn(IN_PROGRESS));
+        long minClaimAgeNanos = TimeUnit.MILLISECONDS.toNanos(reconcileIntervalMs);
+        for (DriverLocationIndex.Driver driver : driverLocationIndex.getDrivers()) {
+            driver.reconcileBusy(busy.contains(driver.getId()), minClaimAgeNanos);
+        }
+    }
+
+    private List<DriverLocationIndex.Candidate> findCandidates(double latitude, double longitude, int limit) {
+        long start = System.nanoTime();
+        try {
+            return driverLocationIndex.nearest(latitude, longitude, limit, maxRadiusKm);
+        } finally {
+            nearestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Returns null when the driver cannot take the order after all
+    private Delivery assign(Long orderId, DriverLocationIndex.Driver claimed, double latitude, double longitude) {
+        User driver = userRepository.findByIdForUpdate(claimed.getId()).orElse(null);
+        if (driver == null || driver.getRole() != User.Role.DRIVER || !driver.isEnabled()) {
+            claimed.goOffShift();
+            return null;
+        }
+        if (deliveryRepository.existsByDriverIdAndStatusIn(driver.getId(), IN_PROGRESS)) {
+            return null;
+        }
+        Delivery delivery = deliveryRepository.findByOrderIdForUpdate(orderId)
+                .orElseGet(() -> new Delivery(orderRepository.getReferenceById(orderId)));
+        if (delivery.getDriver() != null || delivery.getStatus() != Delivery.DeliveryStatus.PENDING) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Order already has a driver");
+        }
+        delivery.setDriver(driver);
+        delivery.setStatus(Delivery.DeliveryStatus.ASSIGNED);
+        delivery.setDestinationLatitude(latitude);
+        delivery.setDestinationLongitude(longitude);
+        return deliveryRepository.saveAndFlush(delivery);
+    }
+}
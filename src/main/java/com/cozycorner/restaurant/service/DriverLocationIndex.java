@@ -0,0 +1,256 @@
+package com.cozycorner.restaurant.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Last reported position and availability of every driver, bucketed into a fixed grid of
+ * latitude/longitude cells. Nearest-driver queries scan rings of cells outward from the
+ * target and stop as soon as no unscanned cell can hold anyone closer, so their cost
+ * depends on how many drivers are nearby, not on how many there are in total.
+ * <p>
+ * A driver is available while on shift, not busy with a delivery and reporting positions.
+ * The busy flag doubles as the assignment claim: {@link Driver#tryClaim} flips it with a
+ * compare-and-set, so two concurrent dispatches can never pick the same driver.
+ */
+@Service
+public class DriverLocationIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.dispatch.grid-cell-degrees:0.01}")
+    private double cellDegrees;
+
+    @Value("${app.dispatch.max-position-age-seconds:120}")
+    private long maxPositionAgeSeconds;
+
+    private final Map<Long, Driver> drivers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Driver>> cells = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("dispatch.drivers.indexed", drivers, Map::size).register(meterRegistry);
+        Gauge.builder("dispatch.drivers.available", this, index -> index.countAvailable()).register(meterRegistry);
+    }
+
+    /**
+     * Records a driver's position. {@code onShift} is null when the report does not say,
+     * in which case the driver's previous shift status is kept.
+     */
+    public Driver update(Long driverId, double latitude, double longitude, Boolean onShift) {
+        Driver driver = drivers.computeIfAbsent(driverId, Driver::new);
+        long cell = cellOf(latitude, longitude);
+        synchronized (driver) {
+            if (!driver.located || driver.cell != cell) {
+                if (driver.located) {
+                    removeFromCell(driver.cell, driver);
+                }
+                // Added inside compute so it cannot race with removeFromCell dropping an emptied set
+                cells.compute(cell, (key, members) -> {
+                    Set<Driver> updated = members != null ? members : ConcurrentHashMap.newKeySet();
+                    updated.add(driver);
+                    return updated;
+                });
+                driver.cell = cell;
+            }
+            driver.latitude = latitude;
+            driver.longitude = longitude;
+            driver.located = true;
+            driver.reportedAtNanos = System.nanoTime();
+            if (onShift != null) {
+                driver.onShift = onShift;
+            }
+        }
+        return driver;
+    }
+
+    public Driver get(Long driverId) {
+        return drivers.get(driverId);
+    }
+
+    public Collection<Driver> getDrivers() {
+        return drivers.values();
+    }
+
+    /**
+     * Up to {@code limit} available drivers within {@code maxRadiusKm} of the point,
+     * nearest first.
+     */
+    public List<Candidate> nearest(double latitude, double longitude, int limit, double maxRadiusKm) {
+        long staleBefore = System.nanoTime() - TimeUnit.SECONDS.toNanos(maxPositionAgeSeconds);
+        // Longitude cells narrow away from the equator; the narrowest one in range bounds every ring
+        double widestLatitude = Math.min(89.0, Math.abs(latitude) + maxRadiusKm / KM_PER_DEGREE);
+        double cellKm = cellDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(widestLatitude));
+        int maxRing = (int) Math.ceil(maxRadiusKm / cellKm) + 1;
+        int centerRow = (int) Math.floor(latitude / cellDegrees);
+        int centerColumn = (int) Math.floor(longitude / cellDegrees);
+
+        // Max-heap of the best candidates so far; the head is the worst of them
+        PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Candidate::getDistanceKm).reversed());
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Any driver in this ring is at least (ring - 1) whole cells away
+            double ringLowerBoundKm = Math.max(0, ring - 1) * cellKm;
+            if (ringLowerBoundKm > maxRadiusKm || (best.size() == limit && best.peek().getDistanceKm() <= ringLowerBoundKm)) {
+                break;
+            }
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+                for (int column = centerColumn - ring; column <= centerColumn + ring; column += step) {
+                    Set<Driver> cell = cells.get(cellKey(row, column));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Driver driver : cell) {
+                        if (!driver.isAvailable(staleBefore)) {
+                            continue;
+                        }
+                        double distanceKm = distanceKm(latitude, longitude, driver.latitude, driver.longitude);
+                        if (distanceKm > maxRadiusKm) {
+                            continue;
+                        }
+                        if (best.size() < limit) {
+                            best.add(new Candidate(driver, distanceKm));
+                        } else if (distanceKm < best.peek().getDistanceKm()) {
+                            best.poll();
+                            best.add(new Candidate(driver, distanceKm));
+                        }
+                    }
+                }
+            }
+        }
+        List<Candidate> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Candidate::getDistanceKm));
+        return result;
+    }
+
+    private int countAvailable() {
+        long staleBefore = System.nanoTime() - TimeUnit.SECONDS.toNanos(maxPositionAgeSeconds);
+        int count = 0;
+        for (Driver driver : drivers.values()) {
+            if (driver.isAvailable(staleBefore)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void removeFromCell(long cell, Driver driver) {
+        cells.computeIfPresent(cell, (key, members) -> {
+            members.remove(driver);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return cellKey((int) Math.floor(latitude / cellDegrees), (int) Math.floor(longitude / cellDegrees));
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    // Haversine
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public static final class Driver {
+        private final Long id;
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private volatile long busySinceNanos;
+        private volatile boolean onShift = true;
+        private volatile boolean located;
+        private volatile double latitude;
+        private volatile double longitude;
+        private volatile long reportedAtNanos;
+        private long cell;
+
+        private Driver(Long id) {
+            this.id = id;
+        }
+
+        public Long getId() { return id; }
+
+        public double getLatitude() { return latitude; }
+
+        public double getLongitude() { return longitude; }
+
+        public boolean isBusy() { return busy.get(); }
+
+        public boolean isOnShift() { return onShift; }
+
+        /**
+         * Marks the driver busy if nobody else has. The winner either assigns the driver or
+         * gives the claim back with {@link #release}.
+         */
+        public boolean tryClaim() {
+            if (busy.compareAndSet(false, true)) {
+                busySinceNanos = System.nanoTime();
+                return true;
+            }
+            return false;
+        }
+
+        public void release() {
+            busy.set(false);
+        }
+
+        void goOffShift() {
+            onShift = false;
+        }
+
+        // Busy flag from the database; claims younger than minClaimAgeNanos are left alone
+        // since their assignment may not have committed when the database was read
+        void reconcileBusy(boolean busyInDatabase, long minClaimAgeNanos) {
+            if (busyInDatabase) {
+                if (busy.compareAndSet(false, true)) {
+                    busySinceNanos = System.nanoTime();
+                }
+            } else if (System.nanoTime() - busySinceNanos > minClaimAgeNanos) {
+                busy.set(false);
+            }
+        }
+
+        private boolean isAvailable(long staleBeforeNanos) {
+            return located && onShift && !busy.get() && reportedAtNanos - staleBeforeNanos > 0;
+        }
+    }
+
+    public static final class Candidate {
+        private final Driver driver;
+        private final double distanceKm;
+
+        private Candidate(Driver driver, double distanceKm) {
+            this.driver = driver;
+            this.distanceKm = distanceKm;
+        }
+
+        public Driver getDriver() { return driver; }
+
+        public double getDistanceKm() { return distanceKm; }
+    }
+}
@@ -0,0 +1,84 @@
+package com.cozycorner.restaurant.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, expiring record of recently seen idempotency keys and the result each one
+ * produced. Least recently used keys are evicted first once {@code maxEntries} is reached,
+ * so memory stays flat however many requests come through.
+ */
+class IdempotencyStore<T> {
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Map<String, Entry<T>> entries;
+
+    IdempotencyStore(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                return size() > IdempotencyStore.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the result of an earlier, completed request with this key, or null after
+     * reserving the key for the caller, who must then {@link #complete} or
+     * {@link #abandon} it.
+     */
+    synchronized T begin(String key, String fingerprint) {
+        Entry<T> entry = entries.get(key);
+        if (entry != null && entry.createdAt.plus(ttl).isBefore(Instant.now())) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            entries.put(key, new Entry<>(fingerprint));
+            return null;
+        }
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+        if (entry.result == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still being processed");
+        }
+        return entry.result;
+    }
+
+    synchronized void complete(String key, T result) {
+        Entry<T> entry = entries.get(key);
+        if (entry != null) {
+            entry.result = result;
+        }
+    }
+
+    // The request failed; a retry with the same key should run again
+    synchronized void abandon(String key) {
+        entries.remove(key);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<T> {
+        private final String fingerprint;
+        private final Instant createdAt = Instant.now();
+        private T result;
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.cozycorner.restaurant.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque cursors for keyset pagination: the sort key values of the last row on a page,
+ * pipe-joined and Base64url encoded. Anything that does not decode is a 400.
+ */
+final class KeysetCursors {
+
+    private KeysetCursors() {}
+
+    static String encode(Object... keys) {
+        StringBuilder raw = new StringBuilder();
+        for (Object key : keys) {
+            if (raw.length() > 0) {
+                raw.append('|');
+            }
+            raw.append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length == expectedParts) {
+                return parts;
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through
+        }
+        throw invalid();
+    }
+
+    static Long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    static LocalDateTime parseTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
@@ -0,0 +1,202 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.KitchenTicket;
+import com.cozycorner.restaurant.dto.KitchenTicketLine;
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.entity.Order;
+import com.cozycorner.restaurant.event.OrderStatusChangedEvent;
+import com.cozycorner.restaurant.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Open orders (pending, confirmed, preparing) held in memory for the kitchen display.
+ * Status changes are applied as they commit and every change publishes a new immutable
+ * view, so screens polling the queue never reach the database.
+ */
+@Service
+public class KitchenQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenQueueService.class);
+
+    static final List<Order.OrderStatus> OPEN_STATUSES = List.of(
+            Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING);
+
+    // First come, first served; on a tie the longer cook starts first
+    private static final Comparator<KitchenTicket> QUEUE_ORDER = Comparator
+            .comparing(KitchenTicket::getCreatedAt)
+            .thenComparing(KitchenTicket::getEstimatedPrepMinutes, Comparator.reverseOrder())
+            .thenComparing(KitchenTicket::getOrderId);
+
+    // Last applied update per order, including closed ones, so a late event can't resurrect an old state
+    private static final int MAX_TRACKED_UPDATES = 4096;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.kitchen.default-prep-minutes:15}")
+    private int defaultPrepMinutes;
+
+    // Mutated only under the service lock
+    private final Map<Long, KitchenTicket> tickets = new HashMap<>();
+    private final Map<Long, Long> lastApplied = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > MAX_TRACKED_UPDATES;
+        }
+    };
+
+    private volatile QueueView view = new QueueView(List.of(), 0);
+
+    @PostConstruct
+    void registerMetrics() {
+        for (Order.OrderStatus status : OPEN_STATUSES) {
+            Gauge.builder("kitchen.queue.depth", this, service -> service.view.countByStatus(status))
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+        for (MenuItem.Category station : MenuItem.Category.values()) {
+            Gauge.builder("kitchen.queue.station.depth", this, service -> service.view.byStation.get(station).size())
+                    .tag("station", station.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("kitchen.queue.oldest.age", this, service -> service.view.oldestAgeSeconds())
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public List<KitchenTicket> getQueue() {
+        return view.all;
+    }
+
+    public List<KitchenTicket> getStationQueue(MenuItem.Category station) {
+        return view.byStation.get(station);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Order order = event.getOrder();
+        Long seen = lastApplied.get(order.getId());
+        if (seen != null && order.getVersion() < seen) {
+            return;
+        }
+        lastApplied.put(order.getId(), order.getVersion());
+
+        KitchenTicket existing = tickets.get(order.getId());
+        if (!OPEN_STATUSES.contains(order.getStatus())) {
+            if (tickets.remove(order.getId()) == null) {
+                return;
+            }
+        } else if (existing != null) {
+            tickets.put(order.getId(), existing.withStatus(order.getStatus(), order.getVersion()));
+        } else {
+            // Line items never change once placed, so they are only loaded when an order enters the queue
+            tickets.put(order.getId(), toTickets(List.of(order)).get(0));
+        }
+        publishView();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    // Safety net for changes made outside this instance (other nodes, SQL scripts)
+    @Scheduled(fixedDelayString = "${app.kitchen.queue.resync-interval-ms:60000}",
+               initialDelayString = "${app.kitchen.queue.resync-interval-ms:60000}")
+    public void scheduledResync() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        List<Order> openOrders = orderRepository.findByStatusInOrderByCreatedAtAsc(OPEN_STATUSES);
+        tickets.clear();
+        for (KitchenTicket ticket : toTickets(openOrders)) {
+            tickets.put(ticket.getOrderId(), ticket);
+            lastApplied.put(ticket.getOrderId(), ticket.getVersion());
+        }
+        publishView();
+        log.debug("Kitchen queue rebuilt: {} open order(s)", tickets.size());
+    }
+
+    private List<KitchenTicket> toTickets(List<Order> orders) {
+        Map<Long, List<KitchenTicketLine>> linesByOrder = new HashMap<>();
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        for (int from = 0; from < orderIds.size(); from += OrderQueryService.LINE_QUERY_CHUNK) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + OrderQueryService.LINE_QUERY_CHUNK, orderIds.size()));
+            for (KitchenTicketLine line : orderRepository.findKitchenLinesByOrderIds(chunk)) {
+                linesByOrder.computeIfAbsent(line.getOrderId(), id -> new ArrayList<>()).add(line);
+            }
+        }
+
+        List<KitchenTicket> result = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            List<KitchenTicketLine> lines = linesByOrder.getOrDefault(order.getId(), List.of());
+            result.add(new KitchenTicket(order.getId(), order.getStatus(), order.getOrderType(), order.getCreatedAt(),
+                    order.getVersion(), order.getSpecialInstructions(),
+                    KitchenTicket.estimatePrepMinutes(lines, defaultPrepMinutes), lines));
+        }
+        return result;
+    }
+
+    private void publishView() {
+        List<KitchenTicket> all = new ArrayList<>(tickets.values());
+        all.sort(QUEUE_ORDER);
+        view = new QueueView(all, defaultPrepMinutes);
+    }
+
+    private static final class QueueView {
+        private final List<KitchenTicket> all;
+        private final Map<MenuItem.Category, List<KitchenTicket>> byStation = new EnumMap<>(MenuItem.Category.class);
+
+        private QueueView(List<KitchenTicket> all, int defaultPrepMinutes) {
+            this.all = List.copyOf(all);
+            for (MenuItem.Category station : MenuItem.Category.values()) {
+                List<KitchenTicket> stationTickets = new ArrayList<>();
+                for (KitchenTicket ticket : all) {
+                    KitchenTicket stationTicket = ticket.forStation(station, defaultPrepMinutes);
+                    if (stationTicket != null) {
+                        stationTickets.add(stationTicket);
+                    }
+                }
+                stationTickets.sort(QUEUE_ORDER);
+                byStation.put(station, List.copyOf(stationTickets));
+            }
+        }
+
+        private long countByStatus(Order.OrderStatus status) {
+            return all.stream().filter(ticket -> ticket.getStatus() == status).count();
+        }
+
+        private double oldestAgeSeconds() {
+            return all.stream()
+                    .map(KitchenTicket::getCreatedAt)
+                    .min(Comparator.naturalOrder())
+                    .map(createdAt -> (double) Duration.between(createdAt, LocalDateTime.now()).getSeconds())
+                    .orElse(0.0);
+        }
+    }
+}
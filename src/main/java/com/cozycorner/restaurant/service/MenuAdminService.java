@@ -0,0 +1,95 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.KeysetPage;
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.repository.MenuItemRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Admin access to the full catalog (including unavailable items) without materializing
+ * it in one go: keyset pages for interactive use, a cursor-backed stream for exports.
+ */
+@Service
+public class MenuAdminService {
+
+    public enum SortKey {
+        ID, UPDATED_AT
+    }
+
+    private static final int FLUSH_EVERY = 200;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public KeysetPage<MenuItem> findPage(SortKey sortKey, String cursor, int limit) {
+        PageRequest pageRequest = PageRequest.of(0, limit);
+        List<MenuItem> items;
+        if (sortKey == SortKey.UPDATED_AT) {
+            if (cursor == null) {
+                items = menuItemRepository.findFirstPageByUpdatedAt(pageRequest);
+            } else {
+                String[] parts = KeysetCursors.decode(cursor, 2);
+                items = menuItemRepository.findPageAfterUpdatedAt(KeysetCursors.parseTimestamp(parts[0]), KeysetCursors.parseId(parts[1]), pageRequest);
+            }
+        } else {
+            Long afterId = cursor == null ? 0L : KeysetCursors.parseId(KeysetCursors.decode(cursor, 1)[0]);
+            items = menuItemRepository.findPageAfterId(afterId, pageRequest);
+        }
+
+        String nextCursor = null;
+        if (items.size() == limit) {
+            MenuItem last = items.get(items.size() - 1);
+            nextCursor = sortKey == SortKey.UPDATED_AT
+                    ? KeysetCursors.encode(last.getUpdatedAt(), last.getId())
+                    : KeysetCursors.encode(last.getId());
+        }
+        return new KeysetPage<>(items, nextCursor);
+    }
+
+    /**
+     * Writes every menu item as a JSON array, reading from a forward-only cursor and
+     * detaching each entity once written so memory stays flat regardless of catalog size.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(MenuItem.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<MenuItem> items = menuItemRepository.streamAllOrderById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            int written = 0;
+            Iterator<MenuItem> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                MenuItem item = iterator.next();
+                writer.writeValue(generator, item);
+                entityManager.detach(item);
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+}
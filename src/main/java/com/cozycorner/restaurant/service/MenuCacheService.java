@@ -0,0 +1,115 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.event.MenuItemChangedEvent;
+import com.cozycorner.restaurant.event.MenuSnapshotChangedEvent;
+import com.cozycorner.restaurant.repository.MenuItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link MenuSnapshot}. Reads are lock-free; writers build a new
+ * snapshot and swap it in atomically once the menu change has been committed.
+ * <p>
+ * Versions continue from the startup time in milliseconds rather than from zero, so a
+ * version a client saw before a restart is always lower than any issued after it and
+ * can never be mistaken for one of them.
+ */
+@Service
+public class MenuCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuCacheService.class);
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<MenuSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versionSequence = new AtomicLong(System.currentTimeMillis());
+
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        hitCounter = Counter.builder("menu.cache.requests").tag("result", "hit").register(meterRegistry);
+        missCounter = Counter.builder("menu.cache.requests").tag("result", "miss").register(meterRegistry);
+        rebuildTimer = Timer.builder("menu.cache.rebuild").register(meterRegistry);
+        Gauge.builder("menu.cache.version", versionSequence, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("menu.cache.items", current, ref -> ref.get() == null ? 0 : ref.get().size())
+                .register(meterRegistry);
+    }
+
+    public MenuSnapshot getSnapshot() {
+        MenuSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            hitCounter.increment();
+            return snapshot;
+        }
+        missCounter.increment();
+        return rebuild();
+    }
+
+    /**
+     * Reloads the available menu from the database. The version is only bumped when
+     * the content actually changed.
+     */
+    public synchronized MenuSnapshot rebuild() {
+        return rebuildTimer.record(() -> {
+            MenuSnapshot existing = current.get();
+            MenuSnapshot fresh = MenuSnapshot.of(versionSequence.get() + 1, menuItemRepository.findAllAvailableItems());
+            if (fresh.hasSameContentAs(existing)) {
+                return existing;
+            }
+            versionSequence.incrementAndGet();
+            current.set(fresh);
+            log.debug("Menu snapshot rebuilt: version={}, items={}", fresh.getVersion(), fresh.size());
+            eventPublisher.publishEvent(new MenuSnapshotChangedEvent(existing, fresh, null));
+            return fresh;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMenuItemChanged(MenuItemChangedEvent event) {
+        MenuSnapshot existing = current.get();
+        if (existing == null) {
+            rebuild();
+            return;
+        }
+        MenuSnapshot updated = existing.withItem(versionSequence.incrementAndGet(), event.getMenuItem());
+        current.set(updated);
+        eventPublisher.publishEvent(new MenuSnapshotChangedEvent(existing, updated, event.getMenuItem()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    // Safety net for changes made outside this instance (other nodes, SQL scripts)
+    @Scheduled(fixedDelayString = "${app.menu.cache.refresh-interval-ms:300000}",
+               initialDelayString = "${app.menu.cache.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        rebuild();
+    }
+}
@@ -0,0 +1,147 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.MenuDelta;
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.event.MenuSnapshotChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Turns every menu snapshot swap into a compact {@link MenuDelta} on {@code /topic/menu}
+ * and keeps the most recent deltas so reconnecting clients can resume from their last
+ * seen version instead of refetching the whole menu.
+ */
+@Service
+public class MenuDeltaPublisher {
+
+    public static final String MENU_TOPIC = "/topic/menu";
+
+    // Fields clients render; timestamps are left out on purpose to keep deltas small
+    private static final Map<String, Function<MenuItem, Object>> TRACKED_FIELDS = new LinkedHashMap<>();
+
+    static {
+        TRACKED_FIELDS.put("name", MenuItem::getName);
+        TRACKED_FIELDS.put("description", MenuItem::getDescription);
+        TRACKED_FIELDS.put("price", MenuItem::getPrice);
+        TRACKED_FIELDS.put("category", MenuItem::getCategory);
+        TRACKED_FIELDS.put("imageUrl", MenuItem::getImageUrl);
+        TRACKED_FIELDS.put("preparationTime", MenuItem::getPreparationTime);
+        TRACKED_FIELDS.put("isVegetarian", MenuItem::getIsVegetarian);
+        TRACKED_FIELDS.put("isSpicy", MenuItem::getIsSpicy);
+        TRACKED_FIELDS.put("calories", MenuItem::getCalories);
+    }
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${app.menu.deltas.history-size:256}")
+    private int historySize;
+
+    private final Deque<MenuDelta> history = new ArrayDeque<>();
+    // Version of the newest snapshot seen; guarded by history
+    private long latestVersion;
+
+    @EventListener
+    public void onMenuSnapshotChanged(MenuSnapshotChangedEvent event) {
+        MenuSnapshot previous = event.getPrevious();
+        MenuSnapshot current = event.getSnapshot();
+        if (previous == null) {
+            // First load after startup; there is nothing clients could be diffing against
+            synchronized (history) {
+                latestVersion = current.getVersion();
+            }
+            return;
+        }
+        List<MenuDelta.ItemChange> changes = new ArrayList<>();
+        if (event.isIncremental()) {
+            diffItem(previous, current, event.getChangedItem().getId(), changes);
+        } else {
+            for (MenuItem item : previous.getAvailableItems()) {
+                diffItem(previous, current, item.getId(), changes);
+            }
+            for (MenuItem item : current.getAvailableItems()) {
+                if (previous.getItem(item.getId()) == null) {
+                    changes.add(MenuDelta.ItemChange.added(item));
+                }
+            }
+        }
+
+        // Published even when empty so the version chain seen by clients has no holes
+        MenuDelta delta = new MenuDelta(current.getVersion(), previous.getVersion(), changes);
+        synchronized (history) {
+            history.addLast(delta);
+            latestVersion = current.getVersion();
+            while (history.size() > historySize) {
+                history.removeFirst();
+            }
+        }
+        messagingTemplate.convertAndSend(MENU_TOPIC, delta);
+    }
+
+    /**
+     * Deltas newer than the given version, oldest first, or empty when the history cannot
+     * prove it leads on from that version and the client has to refetch the full menu:
+     * the version is older than the history reaches, or was never issued by this process
+     * (it is from before a restart, or simply made up).
+     */
+    public Optional<List<MenuDelta>> deltasSince(long version) {
+        synchronized (history) {
+            if (version == latestVersion) {
+                return Optional.of(List.of());
+            }
+            MenuDelta oldest = history.peekFirst();
+            if (version > latestVersion || oldest == null || oldest.getPreviousVersion() > version) {
+                return Optional.empty();
+            }
+            List<MenuDelta> deltas = new ArrayList<>();
+            for (MenuDelta delta : history) {
+                if (delta.getVersion() > version) {
+                    deltas.add(delta);
+                }
+            }
+            return Optional.of(deltas);
+        }
+    }
+
+    private static void diffItem(MenuSnapshot previous, MenuSnapshot current, Long itemId, List<MenuDelta.ItemChange> changes) {
+        MenuItem before = previous.getItem(itemId);
+        MenuItem after = current.getItem(itemId);
+        if (before == null && after != null) {
+            changes.add(MenuDelta.ItemChange.added(after));
+        } else if (before != null && after == null) {
+            changes.add(MenuDelta.ItemChange.removed(itemId));
+        } else if (before != null) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            TRACKED_FIELDS.forEach((name, getter) -> {
+                Object value = getter.apply(after);
+                if (!sameValue(getter.apply(before), value)) {
+                    fields.put(name, value);
+                }
+            });
+            if (!fields.isEmpty()) {
+                changes.add(MenuDelta.ItemChange.updated(itemId, fields));
+            }
+        }
+    }
+
+    private static boolean sameValue(Object a, Object b) {
+        if (a instanceof BigDecimal && b instanceof BigDecimal) {
+            return ((BigDecimal) a).compareTo((BigDecimal) b) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+}
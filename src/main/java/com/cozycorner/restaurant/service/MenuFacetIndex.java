@@ -0,0 +1,243 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.MenuFacetResponse;
+import com.cozycorner.restaurant.dto.MenuFilterCriteria;
+import com.cozycorner.restaurant.entity.MenuItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Columnar index over the current menu snapshot. Categories and dietary flags are kept
+ * as bitsets, numeric attributes as sorted arrays, so any combination of filters is a
+ * handful of bitset intersections. Facet counts are disjunctive: each facet is counted
+ * with every filter applied except its own.
+ */
+@Service
+public class MenuFacetIndex {
+
+    private static final BigDecimal MAX_AMOUNT = BigDecimal.valueOf(Long.MAX_VALUE - 1, 2);
+    private static final BigDecimal MIN_AMOUNT = BigDecimal.valueOf(Long.MIN_VALUE, 2);
+
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    private volatile Columns columns;
+
+    public MenuFacetResponse query(MenuFilterCriteria criteria, int page, int size) {
+        Columns cols = columnsFor(menuCacheService.getSnapshot());
+
+        BitSet categoryMatch = cols.categoryMatch(criteria.getCategory());
+        BitSet vegetarianMatch = cols.flagMatch(cols.vegetarian, criteria.getVegetarian());
+        BitSet spicyMatch = cols.flagMatch(cols.spicy, criteria.getSpicy());
+        BitSet rangeMatch = cols.intersect(
+                cols.price.range(toCents(criteria.getMinPrice()), toCents(criteria.getMaxPrice())),
+                cols.calories.range(null, toLong(criteria.getMaxCalories())),
+                cols.preparationTime.range(null, toLong(criteria.getMaxPreparationTime())));
+
+        BitSet result = cols.intersect(rangeMatch, categoryMatch, vegetarianMatch, spicyMatch);
+
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        BitSet withoutCategory = cols.intersect(rangeMatch, vegetarianMatch, spicyMatch);
+        Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+        for (MenuItem.Category category : MenuItem.Category.values()) {
+            categoryCounts.put(category.name(), intersectionCount(withoutCategory, cols.byCategory[category.ordinal()]));
+        }
+        facets.put("category", categoryCounts);
+        facets.put("vegetarian", flagCounts(cols.intersect(rangeMatch, categoryMatch, spicyMatch), cols.vegetarian));
+        facets.put("spicy", flagCounts(cols.intersect(rangeMatch, categoryMatch, vegetarianMatch), cols.spicy));
+
+        List<MenuItem> items = new ArrayList<>(Math.min(size, result.cardinality()));
+        long skip = (long) page * size;
+        for (int row = result.nextSetBit(0); row >= 0 && items.size() < size; row = result.nextSetBit(row + 1)) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                items.add(cols.items[row]);
+            }
+        }
+        return new MenuFacetResponse(items, result.cardinality(), facets);
+    }
+
+    private Columns columnsFor(MenuSnapshot snapshot) {
+        Columns cols = columns;
+        if (cols == null || cols.version < snapshot.getVersion()) {
+            cols = new Columns(snapshot);
+            columns = cols;
+        } else if (cols.version > snapshot.getVersion()) {
+            // Caller is still on an older snapshot; answer from it without evicting the newer index
+            cols = new Columns(snapshot);
+        }
+        return cols;
+    }
+
+    private static Map<String, Integer> flagCounts(BitSet base, BitSet flag) {
+        int matching = intersectionCount(base, flag);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("true", matching);
+        counts.put("false", base.cardinality() - matching);
+        return counts;
+    }
+
+    private static int intersectionCount(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+
+    // Filter bounds past what a long can hold in cents are clamped, so they match like any
+    // other bound beyond every price; the top stays one short so range() can add 1 to it
+    private static Long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        if (amount.compareTo(MAX_AMOUNT) > 0) {
+            return Long.MAX_VALUE - 1;
+        }
+        if (amount.compareTo(MIN_AMOUNT) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static Long toLong(Integer value) {
+        return value == null ? null : value.longValue();
+    }
+
+    private static final class Columns {
+        private final long version;
+        private final int rowCount;
+        private final MenuItem[] items;
+        private final BitSet[] byCategory;
+        private final BitSet vegetarian = new BitSet();
+        private final BitSet spicy = new BitSet();
+        private final SortedColumn price;
+        private final SortedColumn calories;
+        private final SortedColumn preparationTime;
+
+        private Columns(MenuSnapshot snapshot) {
+            this.version = snapshot.getVersion();
+            this.items = snapshot.getAvailableItems().toArray(new MenuItem[0]);
+            this.rowCount = items.length;
+            this.byCategory = new BitSet[MenuItem.Category.values().length];
+            for (int i = 0; i < byCategory.length; i++) {
+                byCategory[i] = new BitSet(rowCount);
+            }
+            for (int row = 0; row < rowCount; row++) {
+                MenuItem item = items[row];
+                if (item.getCategory() != null) {
+                    byCategory[item.getCategory().ordinal()].set(row);
+                }
+                if (Boolean.TRUE.equals(item.getIsVegetarian())) {
+                    vegetarian.set(row);
+                }
+                if (Boolean.TRUE.equals(item.getIsSpicy())) {
+                    spicy.set(row);
+                }
+            }
+            this.price = new SortedColumn(items, item -> toCents(item.getPrice()));
+            this.calories = new SortedColumn(items, item -> toLong(item.getCalories()));
+            this.preparationTime = new SortedColumn(items, item -> toLong(item.getPreparationTime()));
+        }
+
+        private BitSet categoryMatch(List<MenuItem.Category> categories) {
+            if (categories == null || categories.isEmpty()) {
+                return null;
+            }
+            BitSet match = new BitSet(rowCount);
+            for (MenuItem.Category category : categories) {
+                match.or(byCategory[category.ordinal()]);
+            }
+            return match;
+        }
+
+        private BitSet flagMatch(BitSet flag, Boolean wanted) {
+            if (wanted == null) {
+                return null;
+            }
+            if (wanted) {
+                return flag;
+            }
+            BitSet inverse = (BitSet) flag.clone();
+            inverse.flip(0, rowCount);
+            return inverse;
+        }
+
+        // Null arguments stand for "no constraint"
+        private BitSet intersect(BitSet... sets) {
+            BitSet result = new BitSet(rowCount);
+            result.set(0, rowCount);
+            for (BitSet set : sets) {
+                if (set != null) {
+                    result.and(set);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Values of one numeric attribute sorted ascending together with their row numbers.
+     * Rows with no value are left out and therefore never match a bounded range.
+     */
+    private static final class SortedColumn {
+        private final long[] values;
+        private final int[] rows;
+
+        private SortedColumn(MenuItem[] items, Function<MenuItem, Long> extractor) {
+            long[][] pairs = new long[items.length][];
+            int count = 0;
+            for (int row = 0; row < items.length; row++) {
+                Long value = extractor.apply(items[row]);
+                if (value != null) {
+                    pairs[count++] = new long[] {value, row};
+                }
+            }
+            long[][] present = Arrays.copyOf(pairs, count);
+            Arrays.sort(present, (a, b) -> Long.compare(a[0], b[0]));
+            this.values = new long[count];
+            this.rows = new int[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = present[i][0];
+                rows[i] = (int) present[i][1];
+            }
+        }
+
+        private BitSet range(Long min, Long max) {
+            if (min == null && max == null) {
+                return null;
+            }
+            int from = min == null ? 0 : lowerBound(min);
+            int to = max == null ? values.length : lowerBound(max + 1);
+            BitSet match = new BitSet();
+            for (int i = from; i < to; i++) {
+                match.set(rows[i]);
+            }
+            return match;
+        }
+
+        // First index whose value is >= key
+        private int lowerBound(long key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.BulkImportResult;
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.repository.MenuItemRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk upsert of menu items from a JSON array or CSV stream. Rows are parsed one at a
+ * time, validated, and written in chunks of {@code app.menu.import.batch-size} per
+ * transaction so Hibernate can send them as JDBC batches. A row with an id updates that
+ * item; a row without one updates the item with the same name, or is inserted. A chunk
+ * the database rejects is retried row by row, so one bad row costs only itself.
+ */
+@Service
+public class MenuImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.menu.import.batch-size:500}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+    private Timer importTimer;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        importTimer = Timer.builder("menu.import").register(meterRegistry);
+    }
+
+    public BulkImportResult importJson(InputStream in) throws IOException {
+        ImportRun run = new ImportRun();
+        int row = 0;
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array of menu items");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    // Like malformed JSON, keep what was already imported, but reject the document
+                    BulkImportResult imported = run.finish();
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Row " + (row + 1) + ": expected a JSON object but found "
+                            + token + " (" + (imported.getInserted() + imported.getUpdated()) + " earlier rows were imported)");
+                }
+                row++;
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    run.add(row, objectMapper.treeToValue(node, MenuItem.class));
+                } catch (JsonProcessingException e) {
+                    run.fail(row, e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Malformed document: keep what was already imported and report where it broke
+            run.fail(row + 1, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        return run.finish();
+    }
+
+    public BulkImportResult importCsv(InputStream in) throws IOException {
+        ImportRun run = new ImportRun();
+        MenuCsvReader reader = new MenuCsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header row is required");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        int row = 0;
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            row++;
+            try {
+                run.add(row, fromCsv(record, columns));
+            } catch (IllegalArgumentException e) {
+                run.fail(row, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    private static MenuItem fromCsv(List<String> record, Map<String, Integer> columns) {
+        Function<String, String> column = name -> {
+            Integer index = columns.get(name.toLowerCase(Locale.ROOT));
+            if (index == null || index >= record.size() || record.get(index).isBlank()) {
+                return null;
+            }
+            return record.get(index).trim();
+        };
+
+        MenuItem item = new MenuItem();
+        item.setId(parse(column.apply("id"), Long::valueOf, "id"));
+        item.setName(column.apply("name"));
+        item.setDescription(column.apply("description"));
+        item.setPrice(parse(column.apply("price"), BigDecimal::new, "price"));
+        item.setCategory(parse(column.apply("category"),
+                value -> MenuItem.Category.valueOf(value.toUpperCase(Locale.ROOT)), "category"));
+        item.setImageUrl(column.apply("imageUrl"));
+        item.setPreparationTime(parse(column.apply("preparationTime"), Integer::valueOf, "preparationTime"));
+        item.setCalories(parse(column.apply("calories"), Integer::valueOf, "calories"));
+        String isAvailable = column.apply("isAvailable");
+        if (isAvailable != null) {
+            item.setIsAvailable(Boolean.parseBoolean(isAvailable));
+        }
+        String isVegetarian = column.apply("isVegetarian");
+        if (isVegetarian != null) {
+            item.setIsVegetarian(Boolean.parseBoolean(isVegetarian));
+        }
+        String isSpicy = column.apply("isSpicy");
+        if (isSpicy != null) {
+            item.setIsSpicy(Boolean.parseBoolean(isSpicy));
+        }
+        return item;
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static void copyDetails(MenuItem source, MenuItem target) {
+        target.setName(source.getName());
+        target.setDescription(source.getDescription());
+        target.setPrice(source.getPrice());
+        target.setCategory(source.getCategory());
+        target.setImageUrl(source.getImageUrl());
+        target.setIsAvailable(source.getIsAvailable());
+        target.setPreparationTime(source.getPreparationTime());
+        target.setIsVegetarian(source.getIsVegetarian());
+        target.setIsSpicy(source.getIsSpicy());
+        target.setCalories(source.getCalories());
+    }
+
+    /**
+     * State of a single import request: the pending chunk, the name lookup and the tallies.
+     */
+    private class ImportRun {
+
+        private final BulkImportResult result = new BulkImportResult();
+        private final List<PendingRow> pending = new ArrayList<>();
+        private final long startedAt = System.nanoTime();
+        private Map<String, Long> idsByName;
+
+        void add(int row, MenuItem item) {
+            result.setReceived(result.getReceived() + 1);
+            Set<ConstraintViolation<MenuItem>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                fail(row, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")), false);
+                return;
+            }
+            if (item.getCategory() == null) {
+                // Not a bean constraint on the entity, but the column is NOT NULL and would sink the whole chunk
+                fail(row, "category: Category is required", false);
+                return;
+            }
+            pending.add(new PendingRow(row, item));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void fail(int row, String message) {
+            fail(row, message, true);
+        }
+
+        private void fail(int row, String message, boolean countReceived) {
+            if (countReceived) {
+                result.setReceived(result.getReceived() + 1);
+            }
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(new BulkImportResult.RowError(row, message));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingRow> chunk = new ArrayList<>(pending);
+            pending.clear();
+            if (idsByName == null) {
+                idsByName = new HashMap<>();
+                for (Object[] idAndName : menuItemRepository.findAllIdsAndNames()) {
+                    idsByName.putIfAbsent(normalizeName((String) idAndName[1]), (Long) idAndName[0]);
+                }
+            }
+            write(chunk);
+        }
+
+        /**
+         * Writes the rows in one transaction. When the database rejects the chunk, it is
+         * written again a row at a time so only the offending rows are reported as failed.
+         */
+        private void write(List<PendingRow> chunk) {
+            Map<String, Long> namesAdded = new HashMap<>();
+            List<PendingRow> unknownIds = new ArrayList<>();
+
+            try {
+                int[] counts = transactionTemplate.execute(status -> {
+                    List<Long> targetIds = new ArrayList<>();
+                    for (PendingRow pendingRow : chunk) {
+                        Long id = targetId(pendingRow.item);
+                        if (id != null) {
+                            targetIds.add(id);
+                        }
+                    }
+                    Map<Long, MenuItem> existing = menuItemRepository.findAllById(targetIds).stream()
+                            .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+
+                    int inserted = 0;
+                    int updated = 0;
+                    for (PendingRow pendingRow : chunk) {
+                        MenuItem source = pendingRow.item;
+                        Long id = targetId(source);
+                        MenuItem target = id == null ? null : existing.get(id);
+                        if (target == null && source.getId() != null) {
+                            unknownIds.add(pendingRow);
+                        } else if (target == null) {
+                            target = new MenuItem();
+                            copyDetails(source, target);
+                            entityManager.persist(target);
+                            // Later rows with the same name in this import update the new item
+                            existing.put(target.getId(), target);
+                            if (idsByName.putIfAbsent(normalizeName(target.getName()), target.getId()) == null) {
+                                namesAdded.put(normalizeName(target.getName()), target.getId());
+                            }
+                            inserted++;
+                        } else {
+                            copyDetails(source, target);
+                            updated++;
+                        }
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                    return new int[] {inserted, updated};
+                });
+                result.setInserted(result.getInserted() + counts[0]);
+                result.setUpdated(result.getUpdated() + counts[1]);
+                for (PendingRow pendingRow : unknownIds) {
+                    fail(pendingRow.row, "No menu item with id " + pendingRow.item.getId(), false);
+                }
+            } catch (DataAccessException | PersistenceException e) {
+                // The flush goes through the bare EntityManager, so Hibernate's exceptions arrive untranslated.
+                // Either way the whole chunk was rolled back; forget names it would have introduced.
+                namesAdded.forEach((name, id) -> idsByName.remove(name, id));
+                String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                if (chunk.size() > 1) {
+                    log.warn("Menu import chunk of {} rows failed, retrying row by row: {}", chunk.size(), message);
+                    for (PendingRow pendingRow : chunk) {
+                        write(List.of(pendingRow));
+                    }
+                    return;
+                }
+                fail(chunk.get(0).row, "Rejected by database: " + message, false);
+            }
+        }
+
+        private Long targetId(MenuItem item) {
+            if (item.getId() != null) {
+                return item.getId();
+            }
+            return idsByName.get(normalizeName(item.getName()));
+        }
+
+        BulkImportResult finish() {
+            flush();
+            long elapsedNanos = System.nanoTime() - startedAt;
+            importTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            Counter.builder("menu.import.rows").tag("outcome", "inserted").register(meterRegistry).increment(result.getInserted());
+            Counter.builder("menu.import.rows").tag("outcome", "updated").register(meterRegistry).increment(result.getUpdated());
+            Counter.builder("menu.import.rows").tag("outcome", "failed").register(meterRegistry).increment(result.getFailed());
+
+            result.setElapsedMillis(elapsedNanos / 1_000_000);
+            int written = result.getInserted() + result.getUpdated();
+            result.setRowsPerSecond(elapsedNanos == 0 ? 0 : written * 1_000_000_000.0 / elapsedNanos);
+            if (written > 0) {
+                menuCacheService.rebuild();
+            }
+            log.info("Menu import: received={}, inserted={}, updated={}, failed={}, {} ms",
+                    result.getReceived(), result.getInserted(), result.getUpdated(), result.getFailed(),
+                    result.getElapsedMillis());
+            return result;
+        }
+    }
+
+    private static String normalizeName(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class PendingRow {
+        private final int row;
+        private final MenuItem item;
+
+        private PendingRow(int row, MenuItem item) {
+            this.row = row;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders menu views to JSON once per snapshot version and keeps the bytes (plus an
+ * optional gzipped copy) around so hot read endpoints only have to copy them out.
+ * <p>
+ * Last-Modified is the time the snapshot version was published, not the newest item's
+ * {@code updatedAt}: deleting an item or marking it unavailable changes a view without
+ * touching any item still in it. Each version is dated at least a second after the one
+ * it replaces, since HTTP dates cannot tell apart two versions published within a second.
+ */
+@Service
+public class MenuResponseCache {
+
+    private static final int GZIP_MIN_SIZE = 1024;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.menu.render.gzip-enabled:true}")
+    private boolean gzipEnabled;
+
+    // Rendered views for a single snapshot version; replaced wholesale when the version moves on
+    private volatile VersionedViews views = new VersionedViews(-1, 0);
+
+    public RenderedMenu render(MenuSnapshot snapshot, String viewKey, List<MenuItem> items) {
+        VersionedViews currentViews = views;
+        if (currentViews.version != snapshot.getVersion()) {
+            synchronized (this) {
+                currentViews = views;
+                if (snapshot.getVersion() < currentViews.version) {
+                    // A reader still holding an older snapshot; don't evict the newer views
+                    return renderItems(items, publishedAt(snapshot));
+                }
+                if (currentViews.version != snapshot.getVersion()) {
+                    long lastModified = Math.max(publishedAt(snapshot), currentViews.lastModified + 1000);
+                    currentViews = new VersionedViews(snapshot.getVersion(), lastModified);
+                    views = currentViews;
+                }
+            }
+        }
+        long lastModified = currentViews.lastModified;
+        return currentViews.rendered.computeIfAbsent(viewKey, key -> renderItems(items, lastModified));
+    }
+
+    // Whole seconds, the resolution of HTTP dates
+    private static long publishedAt(MenuSnapshot snapshot) {
+        return snapshot.getBuiltAt().atZone(ZoneId.systemDefault()).toInstant().getEpochSecond() * 1000;
+    }
+
+    private RenderedMenu renderItems(List<MenuItem> items, long lastModified) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to render menu", e);
+        }
+        byte[] gzipBody = gzipEnabled && body.length >= GZIP_MIN_SIZE ? gzip(body) : null;
+
+        String hash = contentHash(body);
+        String etag = "\"" + hash + "\"";
+        String gzipEtag = gzipBody != null ? "\"" + hash + "-gz\"" : null;
+        return new RenderedMenu(body, gzipBody, etag, gzipEtag, lastModified);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String contentHash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class VersionedViews {
+        private final long version;
+        private final long lastModified;
+        private final Map<String, RenderedMenu> rendered = new ConcurrentHashMap<>();
+
+        private VersionedViews(long version, long lastModified) {
+            this.version = version;
+            this.lastModified = lastModified;
+        }
+    }
+
+    public static final class RenderedMenu {
+        private final byte[] body;
+        private final byte[] gzipBody;
+        private final String etag;
+        private final String gzipEtag;
+        private final long lastModified;
+
+        RenderedMenu(byte[] body, byte[] gzipBody, String etag, String gzipEtag, long lastModified) {
+            this.body = body;
+            this.gzipBody = gzipBody;
+            this.etag = etag;
+            this.gzipEtag = gzipEtag;
+            this.lastModified = lastModified;
+        }
+
+        public byte[] getBody() { return body; }
+
+        public byte[] getGzipBody() { return gzipBody; }
+
+        public boolean hasGzipBody() { return gzipBody != null; }
+
+        public String getEtag() { return etag; }
+
+        public String getGzipEtag() { return gzipEtag; }
+
+        public long getLastModified() { return lastModified; }
+    }
+}
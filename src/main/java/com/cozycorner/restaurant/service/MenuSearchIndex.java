@@ -0,0 +1,344 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.event.MenuSnapshotChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over menu item names and descriptions. Query terms match
+ * indexed terms exactly, by prefix, by substring (via a trigram index over the vocabulary)
+ * and, failing those, within a small edit distance. Results are ranked by field weight,
+ * match quality and term rarity.
+ */
+@Service
+public class MenuSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final float EXACT_BOOST = 3.0f;
+    private static final float PREFIX_BOOST = 2.0f;
+    private static final float INFIX_BOOST = 1.0f;
+    private static final float FUZZY_BOOST = 0.5f;
+
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (item id -> field-weighted term frequency)
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // trigram -> terms containing it
+    private final Map<String, Set<String>> trigramIndex = new HashMap<>();
+    // item id -> indexed terms, for removal on update
+    private final Map<Long, Set<String>> termsByItem = new HashMap<>();
+    private final Map<Long, MenuItem> items = new HashMap<>();
+    private long indexedVersion = -1;
+
+    public SearchResult search(String query, int page, int size) {
+        ensureCurrent(menuCacheService.getSnapshot());
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String queryTerm : new LinkedHashSet<>(queryTerms)) {
+                Map<Long, Float> termScores = scoreTerm(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Every query term has to match somewhere in the item
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return new SearchResult(List.of(), 0);
+                }
+            }
+
+            final Map<Long, Float> finalScores = scores;
+            List<MenuItem> ranked = new ArrayList<>(finalScores.size());
+            for (Long id : finalScores.keySet()) {
+                ranked.add(items.get(id));
+            }
+            ranked.sort(Comparator.<MenuItem>comparingDouble(item -> -finalScores.get(item.getId()))
+                    .thenComparing(MenuItem::getName, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(MenuItem::getId));
+
+            int from = Math.min(page * size, ranked.size());
+            int to = Math.min(from + size, ranked.size());
+            return new SearchResult(List.copyOf(ranked.subList(from, to)), ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onMenuSnapshotChanged(MenuSnapshotChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (indexedVersion >= event.getSnapshot().getVersion()) {
+                return;
+            }
+            if (event.isIncremental() && indexedVersion == event.getPrevious().getVersion()) {
+                MenuItem changed = event.getChangedItem();
+                removeItem(changed.getId());
+                if (Boolean.TRUE.equals(changed.getIsAvailable())) {
+                    addItem(changed);
+                }
+                indexedVersion = event.getSnapshot().getVersion();
+            } else {
+                rebuild(event.getSnapshot());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureCurrent(MenuSnapshot snapshot) {
+        lock.readLock().lock();
+        try {
+            if (indexedVersion >= snapshot.getVersion()) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (indexedVersion < snapshot.getVersion()) {
+                rebuild(snapshot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuild(MenuSnapshot snapshot) {
+        postings.clear();
+        trigramIndex.clear();
+        termsByItem.clear();
+        items.clear();
+        for (MenuItem item : snapshot.getAvailableItems()) {
+            addItem(item);
+        }
+        indexedVersion = snapshot.getVersion();
+    }
+
+    private void addItem(MenuItem item) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String term : tokenize(item.getName())) {
+            weights.merge(term, NAME_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(item.getDescription())) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            String term = entry.getKey();
+            Map<Long, Float> termPostings = postings.get(term);
+            if (termPostings == null) {
+                termPostings = new HashMap<>();
+                postings.put(term, termPostings);
+                for (String trigram : trigrams(term)) {
+                    trigramIndex.computeIfAbsent(trigram, t -> new HashSet<>()).add(term);
+                }
+            }
+            termPostings.put(item.getId(), entry.getValue());
+        }
+        termsByItem.put(item.getId(), weights.keySet());
+        items.put(item.getId(), item);
+    }
+
+    private void removeItem(Long id) {
+        Set<String> terms = termsByItem.remove(id);
+        items.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> termPostings = postings.get(term);
+            termPostings.remove(id);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+                for (String trigram : trigrams(term)) {
+                    Set<String> trigramTerms = trigramIndex.get(trigram);
+                    trigramTerms.remove(term);
+                    if (trigramTerms.isEmpty()) {
+                        trigramIndex.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    // Best score per item for a single query term across exact, prefix, infix and fuzzy matches
+    private Map<Long, Float> scoreTerm(String queryTerm) {
+        Map<Long, Float> scores = new HashMap<>();
+
+        for (Map.Entry<String, Map<Long, Float>> entry
+                : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            float boost = entry.getKey().equals(queryTerm) ? EXACT_BOOST : PREFIX_BOOST;
+            accumulate(scores, entry.getValue(), boost);
+        }
+
+        for (String term : infixCandidates(queryTerm)) {
+            if (!term.startsWith(queryTerm) && term.contains(queryTerm)) {
+                accumulate(scores, postings.get(term), INFIX_BOOST);
+            }
+        }
+
+        if (scores.isEmpty() && queryTerm.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = queryTerm.length() >= 8 ? 2 : 1;
+            for (String term : fuzzyCandidates(queryTerm, maxEdits)) {
+                int distance = editDistance(queryTerm, term, maxEdits);
+                if (term.length() > queryTerm.length()) {
+                    // Allow a typo inside a partially typed word as well
+                    distance = Math.min(distance, editDistance(queryTerm, term.substring(0, queryTerm.length()), maxEdits));
+                }
+                if (distance <= maxEdits) {
+                    accumulate(scores, postings.get(term), FUZZY_BOOST / (1 + distance));
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void accumulate(Map<Long, Float> scores, Map<Long, Float> termPostings, float boost) {
+        float idf = (float) Math.log(1.0 + (double) items.size() / termPostings.size());
+        for (Map.Entry<Long, Float> posting : termPostings.entrySet()) {
+            scores.merge(posting.getKey(), posting.getValue() * boost * idf, Math::max);
+        }
+    }
+
+    private Set<String> infixCandidates(String queryTerm) {
+        if (queryTerm.length() < 3) {
+            // Too short for trigrams; the vocabulary is small enough to scan
+            return postings.keySet();
+        }
+        Set<String> candidates = null;
+        for (String trigram : trigrams(queryTerm)) {
+            Set<String> terms = trigramIndex.get(trigram);
+            if (terms == null) {
+                return Set.of();
+            }
+            if (candidates == null) {
+                candidates = new HashSet<>(terms);
+            } else {
+                candidates.retainAll(terms);
+            }
+        }
+        return candidates;
+    }
+
+    private Set<String> fuzzyCandidates(String queryTerm, int maxEdits) {
+        Set<String> queryTrigrams = trigrams(queryTerm);
+        // Each edit destroys at most three trigrams
+        int minShared = Math.max(1, queryTrigrams.size() - 3 * maxEdits);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (String term : trigramIndex.getOrDefault(trigram, Set.of())) {
+                shared.merge(term, 1, Integer::sum);
+            }
+        }
+        Set<String> candidates = new HashSet<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            if (entry.getValue() >= minShared) {
+                candidates.add(entry.getKey());
+            }
+        }
+        return candidates;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> trigrams(String term) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            trigrams.add(term.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    // Optimal string alignment distance, abandoned early once it exceeds maxEdits
+    private static int editDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, d[i][j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    public static final class SearchResult {
+        private final List<MenuItem> items;
+        private final int total;
+
+        SearchResult(List<MenuItem> items, int total) {
+            this.items = items;
+            this.total = total;
+        }
+
+        public List<MenuItem> getItems() { return items; }
+
+        public int getTotal() { return total; }
+    }
+}
@@ -0,0 +1,113 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.entity.MenuItem;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, versioned view of the available menu. Items are pre-partitioned by
+ * category and dietary flags so the public read endpoints never touch the database.
+ * The contained {@link MenuItem} instances are shared and must be treated as read-only.
+ */
+public final class MenuSnapshot {
+
+    private final long version;
+    private final LocalDateTime builtAt;
+    private final Map<Long, MenuItem> itemsById;
+    private final List<MenuItem> availableItems;
+    private final Map<MenuItem.Category, List<MenuItem>> itemsByCategory;
+    private final List<MenuItem> vegetarianItems;
+    private final List<MenuItem> spicyItems;
+
+    private MenuSnapshot(long version, Collection<MenuItem> items) {
+        List<MenuItem> available = new ArrayList<>();
+        for (MenuItem item : items) {
+            if (Boolean.TRUE.equals(item.getIsAvailable())) {
+                available.add(item);
+            }
+        }
+        available.sort(Comparator.comparing(MenuItem::getId));
+
+        Map<Long, MenuItem> byId = new LinkedHashMap<>();
+        Map<MenuItem.Category, List<MenuItem>> byCategory = new EnumMap<>(MenuItem.Category.class);
+        List<MenuItem> vegetarian = new ArrayList<>();
+        List<MenuItem> spicy = new ArrayList<>();
+        for (MenuItem item : available) {
+            byId.put(item.getId(), item);
+            byCategory.computeIfAbsent(item.getCategory(), c -> new ArrayList<>()).add(item);
+            if (Boolean.TRUE.equals(item.getIsVegetarian())) {
+                vegetarian.add(item);
+            }
+            if (Boolean.TRUE.equals(item.getIsSpicy())) {
+                spicy.add(item);
+            }
+        }
+        byCategory.replaceAll((category, list) -> List.copyOf(list));
+
+        this.version = version;
+        this.builtAt = LocalDateTime.now();
+        this.itemsById = Collections.unmodifiableMap(byId);
+        this.availableItems = List.copyOf(available);
+        this.itemsByCategory = Collections.unmodifiableMap(byCategory);
+        this.vegetarianItems = List.copyOf(vegetarian);
+        this.spicyItems = List.copyOf(spicy);
+    }
+
+    public static MenuSnapshot of(long version, Collection<MenuItem> items) {
+        return new MenuSnapshot(version, items);
+    }
+
+    /**
+     * Returns a new snapshot with the given item replaced (or dropped when it is no
+     * longer available). This snapshot is left untouched.
+     */
+    public MenuSnapshot withItem(long newVersion, MenuItem changed) {
+        Map<Long, MenuItem> items = new LinkedHashMap<>(itemsById);
+        items.put(changed.getId(), changed);
+        return new MenuSnapshot(newVersion, items.values());
+    }
+
+    /**
+     * True when both snapshots contain the same items at the same revision, used to
+     * avoid bumping the version on a periodic refresh that found nothing new.
+     */
+    public boolean hasSameContentAs(MenuSnapshot other) {
+        if (other == null || other.itemsById.size() != itemsById.size()) {
+            return false;
+        }
+        for (MenuItem item : availableItems) {
+            MenuItem otherItem = other.itemsById.get(item.getId());
+            if (otherItem == null || !Objects.equals(item.getUpdatedAt(), otherItem.getUpdatedAt())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getVersion() { return version; }
+
+    public LocalDateTime getBuiltAt() { return builtAt; }
+
+    public int size() { return availableItems.size(); }
+
+    public MenuItem getItem(Long id) { return itemsById.get(id); }
+
+    public List<MenuItem> getAvailableItems() { return availableItems; }
+
+    public List<MenuItem> getItemsByCategory(MenuItem.Category category) {
+        return itemsByCategory.getOrDefault(category, List.of());
+    }
+
+    public List<MenuItem> getVegetarianItems() { return vegetarianItems; }
+
+    public List<MenuItem> getSpicyItems() { return spicyItems; }
+}
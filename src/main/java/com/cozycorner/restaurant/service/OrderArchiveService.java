@@ -0,0 +1,121 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.ArchiveRunResult;
+import com.cozycorner.restaurant.repository.OrderArchiveRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves delivered and cancelled orders older than {@code app.orders.archive.min-age-days}
+ * out of the hot tables, one transaction per batch so locks are short and a failure only
+ * rolls back the batch in flight. Runs nightly and on demand.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.orders.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.orders.archive.min-age-days:90}")
+    private int minAgeDays;
+
+    @Value("${app.orders.archive.batch-size:500}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final AtomicReference<ArchiveRunResult> lastRun = new AtomicReference<>();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("orders.archive.hot.orders", lastRun, ref -> ref.get() == null ? 0 : ref.get().getHotOrdersAfter())
+                .register(meterRegistry);
+        Gauge.builder("orders.archive.archived.orders", lastRun, ref -> ref.get() == null ? 0 : ref.get().getArchivedOrdersTotal())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareSchema() {
+        orderArchiveRepository.ensureSchema();
+    }
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    public ArchiveRunResult archive() {
+        if (!runLock.tryLock()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "An archive run is already in progress");
+        }
+        try {
+            long started = System.nanoTime();
+            ArchiveRunResult result = new ArchiveRunResult();
+            result.setStartedAt(LocalDateTime.now());
+            result.setCutoff(LocalDateTime.now().minusDays(minAgeDays));
+            result.setHotOrdersBefore(orderArchiveRepository.countHotOrders());
+
+            int moved;
+            do {
+                Map<String, Integer> rows = transactionTemplate.execute(status -> {
+                    List<Long> orderIds = orderArchiveRepository.lockArchivableOrderIds(result.getCutoff(), batchSize);
+                    return orderIds.isEmpty() ? Map.of() : orderArchiveRepository.moveToArchive(orderIds);
+                });
+                moved = rows.getOrDefault("orders", 0);
+                if (moved > 0) {
+                    result.setBatches(result.getBatches() + 1);
+                    result.addRows(rows);
+                    rows.forEach((table, count) -> meterRegistry.counter("orders.archive.rows", "table", table).increment(count));
+                }
+            } while (moved == batchSize);
+
+            result.setHotOrdersAfter(orderArchiveRepository.countHotOrders());
+            result.setArchivedOrdersTotal(orderArchiveRepository.countArchivedOrders());
+            result.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+            lastRun.set(result);
+            log.info("Archived {} order(s) placed before {} in {} batch(es); hot orders {} -> {}",
+                    result.getRowsArchived().getOrDefault("orders", 0), result.getCutoff(), result.getBatches(),
+                    result.getHotOrdersBefore(), result.getHotOrdersAfter());
+            return result;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    public ArchiveRunResult getLastRun() {
+        return lastRun.get();
+    }
+}
@@ -0,0 +1,297 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.repository.OrderExportRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Accounting export of orders and their line items for a date range. Rows go from a
+ * forward-only JDBC cursor straight to the response, oldest order first across the hot
+ * and archive tables, so memory stays flat whether the range holds a day or a year.
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExportService.class);
+
+    private static final int FLUSH_EVERY = 500;
+
+    private static final String[] CSV_COLUMNS = {
+            "order_id", "created_at", "status", "order_type", "customer_id", "customer_name", "customer_email",
+            "delivery_address", "discount_amount", "order_total", "item_id", "menu_item_id", "menu_item_name",
+            "quantity", "unit_price", "line_total", "customization"
+    };
+
+    @Autowired
+    private OrderExportRepository orderExportRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate readOnlyTemplate;
+
+    @PostConstruct
+    void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Writes every order placed between {@code from} and {@code to} (inclusive) in the
+     * given format, gzipped when asked to.
+     */
+    public void export(LocalDate from, LocalDate to, Format format, boolean gzip, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        LineWriter writer = format == Format.CSV ? new CsvLineWriter(target) : new NdjsonLineWriter(target);
+        try {
+            readOnlyTemplate.executeWithoutResult(status -> {
+                RowCallbackHandler handler = rs -> {
+                    try {
+                        writer.write(rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+                orderExportRepository.streamOrderLines(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), handler);
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download
+            throw e.getCause();
+        }
+        writer.finish();
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+
+        meterRegistry.counter("orders.export.rows", "format", format.name()).increment(writer.rows);
+        log.info("Exported {} orders ({} rows) for {}..{} as {} in {} ms", writer.orders, writer.rows, from, to,
+                format, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private abstract static class LineWriter {
+        long rows;
+        long orders;
+        private long currentOrderId = -1;
+
+        void write(ResultSet rs) throws IOException {
+            try {
+                long orderId = rs.getLong("order_id");
+                if (orderId != currentOrderId) {
+                    currentOrderId = orderId;
+                    orders++;
+                    startOrder(rs);
+                }
+                writeLine(rs);
+            } catch (SQLException e) {
+                throw new IOException("Failed to read export row", e);
+            }
+            if (++rows % FLUSH_EVERY == 0) {
+                flush();
+            }
+        }
+
+        abstract void startOrder(ResultSet rs) throws SQLException, IOException;
+
+        abstract void writeLine(ResultSet rs) throws SQLException, IOException;
+
+        abstract void flush() throws IOException;
+
+        abstract void finish() throws IOException;
+    }
+
+    // One record per line item with the order columns repeated, which is what spreadsheets want
+    private static final class CsvLineWriter extends LineWriter {
+        private final Writer out;
+
+        private CsvLineWriter(OutputStream target) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+            for (int i = 0; i < CSV_COLUMNS.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(CSV_COLUMNS[i]);
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        void startOrder(ResultSet rs) {
+        }
+
+        @Override
+        void writeLine(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < CSV_COLUMNS.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(csvField(rs, i + 1));
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        void finish() throws IOException {
+            out.flush();
+        }
+
+        private static String csvField(ResultSet rs, int column) throws SQLException {
+            Object value = rs.getObject(column);
+            if (value == null) {
+                return "";
+            }
+            if (value instanceof BigDecimal) {
+                return ((BigDecimal) value).toPlainString();
+            }
+            if (value instanceof Timestamp) {
+                return ((Timestamp) value).toLocalDateTime().toString();
+            }
+            if (value instanceof Number) {
+                return value.toString();
+            }
+            String text = value.toString();
+            // Keep spreadsheets from evaluating customer-entered text as a formula
+            if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+            return text;
+        }
+    }
+
+    // One JSON object per order with its items nested; only the current order is open at a time
+    private final class NdjsonLineWriter extends LineWriter {
+        private final JsonGenerator generator;
+        private boolean orderOpen;
+
+        private NdjsonLineWriter(OutputStream target) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(target);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        void startOrder(ResultSet rs) throws SQLException, IOException {
+            closeOrder();
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("order_id"));
+            writeTimestamp("createdAt", rs.getTimestamp("created_at"));
+            generator.writeStringField("status", rs.getString("status"));
+            generator.writeStringField("orderType", rs.getString("order_type"));
+            generator.writeNumberField("customerId", rs.getLong("customer_id"));
+            generator.writeStringField("customerName", rs.getString("customer_name"));
+            generator.writeStringField("customerEmail", rs.getString("customer_email"));
+            generator.writeStringField("deliveryAddress", rs.getString("delivery_address"));
+            writeDecimal("discountAmount", rs.getBigDecimal("discount_amount"));
+            writeDecimal("totalPrice", rs.getBigDecimal("total_price"));
+            generator.writeArrayFieldStart("items");
+            orderOpen = true;
+        }
+
+        @Override
+        void writeLine(ResultSet rs) throws SQLException, IOException {
+            long itemId = rs.getLong("item_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            generator.writeStartObject();
+            generator.writeNumberField("id", itemId);
+            generator.writeNumberField("menuItemId", rs.getLong("menu_item_id"));
+            generator.writeStringField("menuItemName", rs.getString("menu_item_name"));
+            generator.writeNumberField("quantity", rs.getInt("quantity"));
+            writeDecimal("unitPrice", rs.getBigDecimal("unit_price"));
+            writeDecimal("totalPrice", rs.getBigDecimal("line_total"));
+            generator.writeStringField("customization", rs.getString("customization"));
+            generator.writeEndObject();
+        }
+
+        @Override
+        void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        void finish() throws IOException {
+            closeOrder();
+            generator.writeRaw('\n');
+            generator.close();
+        }
+
+        private void closeOrder() throws IOException {
+            if (orderOpen) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                orderOpen = false;
+            }
+        }
+
+        private void writeTimestamp(String field, Timestamp value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeStringField(field, value.toLocalDateTime().toString());
+            }
+        }
+
+        private void writeDecimal(String field, BigDecimal value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeNumberField(field, value);
+            }
+        }
+    }
+}
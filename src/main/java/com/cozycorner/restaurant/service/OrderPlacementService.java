@@ -0,0 +1,252 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.OrderLineSummary;
+import com.cozycorner.restaurant.dto.OrderSummary;
+import com.cozycorner.restaurant.dto.PlaceOrderRequest;
+import com.cozycorner.restaurant.entity.Coupon;
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.entity.Order;
+import com.cozycorner.restaurant.entity.OrderItem;
+import com.cozycorner.restaurant.entity.User;
+import com.cozycorner.restaurant.event.OrderStatusChangedEvent;
+import com.cozycorner.restaurant.repository.CouponRepository;
+import com.cozycorner.restaurant.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Places customer orders. Prices come from the cached menu snapshot and coupon uses are
+ * counted in memory ({@link CouponRedemptionService}), so the only read is the lookup of
+ * a coupon the {@link CouponCodeIndex} knows to be current; the order and all of its
+ * items are written in one transaction as JDBC batches (pooled sequence ids,
+ * {@code hibernate.jdbc.batch_size}).
+ * <p>
+ * Requests may carry an {@code Idempotency-Key}. Retries with the same key get the
+ * original order back from memory without touching the database; a retry that lands
+ * after the key was evicted (or on another node) is caught by the unique key on
+ * {@code orders(customer_id, idempotency_key)}.
+ */
+@Service
+public class OrderPlacementService {
+
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponRedemptionService couponRedemptionService;
+
+    @Autowired
+    private CouponCodeIndex couponCodeIndex;
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.orders.idempotency.max-entries:10000}")
+    private int idempotencyMaxEntries;
+
+    @Value("${app.orders.idempotency.ttl-minutes:1440}")
+    private long idempotencyTtlMinutes;
+
+    private IdempotencyStore<OrderSummary> idempotencyStore;
+    private TransactionTemplate transactionTemplate;
+    private Timer placementTimer;
+    private Counter replayCounter;
+
+    @PostConstruct
+    void init() {
+        idempotencyStore = new IdempotencyStore<>(idempotencyMaxEntries, Duration.ofMinutes(idempotencyTtlMinutes));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        placementTimer = Timer.builder("orders.placement").register(meterRegistry);
+        replayCounter = Counter.builder("orders.placement.replayed").register(meterRegistry);
+        Gauge.builder("orders.idempotency.keys", idempotencyStore, IdempotencyStore::size).register(meterRegistry);
+    }
+
+    public static class Placement {
+        private final OrderSummary order;
+        private final boolean replayed;
+
+        private Placement(OrderSummary order, boolean replayed) {
+            this.order = order;
+            this.replayed = replayed;
+        }
+
+        public OrderSummary getOrder() { return order; }
+
+        // True when this is the answer to an earlier request with the same idempotency key
+        public boolean isReplayed() { return replayed; }
+    }
+
+    public Placement placeOrder(User customer, PlaceOrderRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return new Placement(place(customer, request, null), false);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        String storeKey = customer.getId() + ":" + idempotencyKey;
+        OrderSummary previous = idempotencyStore.begin(storeKey, fingerprint(request));
+        if (previous != null) {
+            replayCounter.increment();
+            return new Placement(previous, true);
+        }
+        try {
+            OrderSummary placed = place(customer, request, idempotencyKey);
+            idempotencyStore.complete(storeKey, placed);
+            return new Placement(placed, false);
+        } catch (DataIntegrityViolationException e) {
+            Optional<OrderSummary> existing = orderRepository.findIdByIdempotencyKey(customer.getId(), idempotencyKey)
+                    .flatMap(orderQueryService::findOrder);
+            if (existing.isEmpty()) {
+                idempotencyStore.abandon(storeKey);
+                throw e;
+            }
+            idempotencyStore.complete(storeKey, existing.get());
+            replayCounter.increment();
+            return new Placement(existing.get(), true);
+        } catch (RuntimeException e) {
+            idempotencyStore.abandon(storeKey);
+            throw e;
+        }
+    }
+
+    private OrderSummary place(User customer, PlaceOrderRequest request, String idempotencyKey) {
+        if (request.getOrderType() == Order.OrderType.DELIVERY
+                && (request.getDeliveryAddress() == null || request.getDeliveryAddress().isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Delivery address is required for delivery orders");
+        }
+        return placementTimer.record(() -> transactionTemplate.execute(status -> {
+            MenuSnapshot menu = menuCacheService.getSnapshot();
+            Order order = new Order();
+            order.setCustomer(customer);
+            order.setOrderType(request.getOrderType());
+            order.setDeliveryAddress(request.getOrderType() == Order.OrderType.DELIVERY ? request.getDeliveryAddress() : null);
+            order.setSpecialInstructions(request.getSpecialInstructions());
+            order.setIdempotencyKey(idempotencyKey);
+
+            BigDecimal subtotal = BigDecimal.ZERO;
+            for (PlaceOrderRequest.Line line : request.getItems()) {
+                MenuItem item = menu.getItem(line.getMenuItemId());
+                if (item == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Menu item " + line.getMenuItemId() + " is not available");
+                }
+                // A reference is enough for the foreign key; the item itself was read from the snapshot
+                MenuItem reference = entityManager.getReference(MenuItem.class, item.getId());
+                OrderItem orderItem = new OrderItem(order, reference, line.getQuantity(), item.getPrice(), line.getCustomization());
+                order.addOrderItem(orderItem);
+                subtotal = subtotal.add(orderItem.getTotalPrice());
+            }
+
+            BigDecimal discount = BigDecimal.ZERO;
+            if (request.getCouponCode() != null && !request.getCouponCode().isBlank()) {
+                Coupon coupon = redeemCoupon(request.getCouponCode().trim(), subtotal);
+                discount = coupon.calculateDiscount(subtotal).setScale(2, RoundingMode.HALF_UP).min(subtotal);
+                order.setCoupon(coupon);
+            }
+            order.setDiscountAmount(discount);
+            order.setTotalPrice(subtotal.subtract(discount));
+
+            Order placed = orderRepository.saveAndFlush(order);
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(placed, null));
+            return toSummary(placed, customer, menu);
+        }));
+    }
+
+    private Coupon redeemCoupon(String code, BigDecimal subtotal) {
+        Optional<Coupon> found;
+        if (couponCodeIndex.isLoaded()) {
+            // Unknown and expired codes are answered from memory
+            CouponCodeIndex.Match match = couponCodeIndex.find(code);
+            if (match != null && !match.isCurrent(LocalDateTime.now())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Coupon " + code + " is not valid");
+            }
+            found = match == null ? Optional.empty() : couponRepository.findById(match.getCouponId());
+        } else {
+            found = couponRepository.findByCode(code);
+        }
+        Coupon coupon = found.orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid coupon code"));
+        if (!coupon.isValid()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Coupon " + code + " is not valid");
+        }
+        if (coupon.getMinimumOrderAmount() != null && subtotal.compareTo(coupon.getMinimumOrderAmount()) < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Coupon " + code + " needs an order of at least " + coupon.getMinimumOrderAmount());
+        }
+        if (!couponRedemptionService.reserve(coupon)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Coupon " + code + " has been used up");
+        }
+        return coupon;
+    }
+
+    private static OrderSummary toSummary(Order order, User customer, MenuSnapshot menu) {
+        OrderSummary summary = new OrderSummary(order.getId(), order.getStatus(), order.getOrderType(),
+                order.getTotalPrice(), order.getDeliveryAddress(), order.getCreatedAt(), order.getEstimatedDeliveryTime(),
+                customer.getId(), customer.getName(), null, null);
+        for (OrderItem item : order.getOrderItems()) {
+            Long menuItemId = item.getMenuItem().getId();
+            summary.getItems().add(new OrderLineSummary(order.getId(), item.getId(), menuItemId,
+                    menu.getItem(menuItemId).getName(), item.getQuantity(), item.getUnitPrice(), item.getTotalPrice(),
+                    item.getCustomization()));
+        }
+        return summary;
+    }
+
+    private String fingerprint(PlaceOrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
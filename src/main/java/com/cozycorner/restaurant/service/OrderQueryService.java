@@ -0,0 +1,121 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.KeysetPage;
+import com.cozycorner.restaurant.dto.OrderLineSummary;
+import com.cozycorner.restaurant.dto.OrderSummary;
+import com.cozycorner.restaurant.repository.OrderArchiveRepository;
+import com.cozycorner.restaurant.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Order list views built from DTO projections: one query for the orders and one per
+ * {@value #LINE_QUERY_CHUNK} orders for their line items, however many orders and items
+ * there are.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderQueryService {
+
+    // Keeps the IN list of the line item query within what every database accepts
+    static final int LINE_QUERY_CHUNK = 1000;
+
+    private static final Comparator<OrderSummary> NEWEST_FIRST = Comparator
+            .comparing(OrderSummary::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(OrderSummary::getId, Comparator.reverseOrder());
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    public Optional<OrderSummary> findOrder(Long orderId) {
+        return orderRepository.findOrderSummaryById(orderId).map(order -> withLineItems(List.of(order)).get(0));
+    }
+
+    public List<OrderSummary> findPendingOrders() {
+        return withLineItems(orderRepository.findPendingOrderSummaries());
+    }
+
+    /**
+     * One page of a customer's orders, newest first. The cursor carries the
+     * (createdAt, id) of the last order already seen, so any page costs the same as the first.
+     * Hot and archived orders are read with the same seek and merged, so history reads the
+     * same whether or not older orders have been archived.
+     */
+    public KeysetPage<OrderSummary> findCustomerOrderHistory(Long customerId, String cursor, int limit) {
+        PageRequest pageRequest = PageRequest.of(0, limit);
+        LocalDateTime beforeCreatedAt = null;
+        Long beforeId = null;
+        List<OrderSummary> hot;
+        if (cursor == null) {
+            hot = orderRepository.findCustomerOrderSummaries(customerId, pageRequest);
+        } else {
+            String[] parts = KeysetCursors.decode(cursor, 2);
+            beforeCreatedAt = KeysetCursors.parseTimestamp(parts[0]);
+            beforeId = KeysetCursors.parseId(parts[1]);
+            hot = orderRepository.findCustomerOrderSummariesBefore(customerId, beforeCreatedAt, beforeId, pageRequest);
+        }
+        List<OrderSummary> archived = orderArchiveRepository.findCustomerOrderSummaries(customerId, beforeCreatedAt, beforeId, limit);
+
+        // Both inputs are already newest first; take the newest `limit` of the two
+        List<OrderSummary> orders = new ArrayList<>(limit);
+        List<OrderSummary> fromHot = new ArrayList<>();
+        List<OrderSummary> fromArchive = new ArrayList<>();
+        int h = 0;
+        int a = 0;
+        while (orders.size() < limit && (h < hot.size() || a < archived.size())) {
+            if (a >= archived.size() || (h < hot.size() && NEWEST_FIRST.compare(hot.get(h), archived.get(a)) <= 0)) {
+                fromHot.add(hot.get(h));
+                orders.add(hot.get(h++));
+            } else {
+                fromArchive.add(archived.get(a));
+                orders.add(archived.get(a++));
+            }
+        }
+        withLineItems(fromHot);
+        withLineItems(fromArchive, orderArchiveRepository::findLineSummariesByOrderIds);
+
+        String nextCursor = null;
+        if (orders.size() == limit) {
+            OrderSummary last = orders.get(orders.size() - 1);
+            nextCursor = KeysetCursors.encode(last.getCreatedAt(), last.getId());
+        }
+        return new KeysetPage<>(orders, nextCursor);
+    }
+
+    List<OrderSummary> withLineItems(List<OrderSummary> orders) {
+        return withLineItems(orders, orderRepository::findLineSummariesByOrderIds);
+    }
+
+    private static List<OrderSummary> withLineItems(List<OrderSummary> orders,
+                                                    Function<List<Long>, List<OrderLineSummary>> lineLoader) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<Long, OrderSummary> ordersById = new LinkedHashMap<>();
+        for (OrderSummary order : orders) {
+            ordersById.put(order.getId(), order);
+        }
+        List<Long> orderIds = new ArrayList<>(ordersById.keySet());
+        for (int from = 0; from < orderIds.size(); from += LINE_QUERY_CHUNK) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + LINE_QUERY_CHUNK, orderIds.size()));
+            for (OrderLineSummary line : lineLoader.apply(chunk)) {
+                ordersById.get(line.getOrderId()).getItems().add(line);
+            }
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,61 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.entity.Order;
+import com.cozycorner.restaurant.event.OrderStatusChangedEvent;
+import com.cozycorner.restaurant.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+@Service
+public class OrderService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Moves an order along its lifecycle. The write is a conditional UPDATE on the status
+     * that was read; if another writer got there first the order is re-read and the
+     * transition re-checked against its new state. Asking for the status the order already
+     * has is a no-op, so retried requests are harmless.
+     */
+    @Transactional
+    public Order updateStatus(Long orderId, Order.OrderStatus newStatus) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+        // Statuses only move forward, so each lost race brings us closer to a terminal state
+        for (int attempt = 0; attempt < Order.OrderStatus.values().length; attempt++) {
+            Order.OrderStatus previousStatus = order.getStatus();
+            if (previousStatus == newStatus) {
+                return order;
+            }
+            if (!order.canTransitionTo(newStatus)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Order " + orderId + " is " + previousStatus + " and cannot move to " + newStatus);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            int updated = newStatus == Order.OrderStatus.DELIVERED
+                    ? orderRepository.markDelivered(orderId, previousStatus, now)
+                    : orderRepository.transitionStatus(orderId, previousStatus, newStatus, now);
+            entityManager.refresh(order);
+            if (updated == 1) {
+                eventPublisher.publishEvent(new OrderStatusChangedEvent(order, previousStatus));
+                return order;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "Order " + orderId + " is being updated concurrently");
+    }
+}
@@ -0,0 +1,245 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.SalesSummary;
+import com.cozycorner.restaurant.entity.Order;
+import com.cozycorner.restaurant.entity.SalesRollup;
+import com.cozycorner.restaurant.event.OrderStatusChangedEvent;
+import com.cozycorner.restaurant.repository.OrderRepository;
+import com.cozycorner.restaurant.repository.SalesRollupRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains hourly and daily sales totals as orders are delivered (or un-delivered), so
+ * dashboards read a few dozen rollup rows instead of scanning {@code orders}.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupService.class);
+
+    private static final String INSERT_BUCKET =
+            "INSERT INTO sales_rollups (granularity, bucket_start, order_type, order_count, revenue, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate newTransaction;
+    private TransactionTemplate savepoint;
+
+    @PostConstruct
+    void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        savepoint = new TransactionTemplate(transactionManager);
+        savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    /**
+     * Runs just before the status change commits, in the same transaction, so the rollup
+     * can never disagree with the orders table.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        boolean wasDelivered = event.getPreviousStatus() == Order.OrderStatus.DELIVERED;
+        boolean isDelivered = event.getNewStatus() == Order.OrderStatus.DELIVERED;
+        if (wasDelivered == isDelivered) {
+            return;
+        }
+        Order order = event.getOrder();
+        BigDecimal revenue = isDelivered ? order.getTotalPrice() : order.getTotalPrice().negate();
+        record(order.getCreatedAt(), order.getOrderType(), isDelivered ? 1 : -1, revenue);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        prepareBuckets();
+    }
+
+    /**
+     * Creates today's and tomorrow's (still empty) bucket rows ahead of time, so a delivery
+     * only ever has to increment an existing row inside its own transaction.
+     */
+    @Scheduled(cron = "${app.sales.rollup.prepare-cron:0 0 * * * *}")
+    public void prepareBuckets() {
+        LocalDate today = LocalDate.now();
+        for (LocalDate day = today; !day.isAfter(today.plusDays(1)); day = day.plusDays(1)) {
+            LocalDate current = day;
+            try {
+                newTransaction.executeWithoutResult(status -> createMissingBuckets(current));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Sales rollup buckets for {} created concurrently", current);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public SalesSummary getDailySummary(LocalDate day) {
+        return getDailySummaries(day, day).get(0);
+    }
+
+    /**
+     * One summary per day from {@code from} to {@code to}, both inclusive; days without
+     * sales are reported as zeros.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesSummary> getDailySummaries(LocalDate from, LocalDate to) {
+        return summarize(SalesRollup.Granularity.DAY, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    @Transactional(readOnly = true)
+    public List<SalesSummary> getHourlySummaries(LocalDate day) {
+        return summarize(SalesRollup.Granularity.HOUR, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Recomputes the rollups of every day in the range (inclusive) from the orders table,
+     * one transaction per day. Meant for history from before rollups existed or after a
+     * data fix; a day that is still taking deliveries can be off by orders delivered while
+     * it is being rebuilt, so run it for closed days. Only hot orders are counted, so do
+     * not backfill days whose orders have already been archived.
+     */
+    public int backfill(LocalDate from, LocalDate to) {
+        int days = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate current = day;
+            newTransaction.executeWithoutResult(status -> rebuildDay(current));
+            days++;
+        }
+        log.info("Backfilled sales rollups for {} day(s) from {} to {}", days, from, to);
+        return days;
+    }
+
+    private void rebuildDay(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        salesRollupRepository.deleteBuckets(start, end);
+
+        List<SalesRollup> rows = new ArrayList<>();
+        Map<Order.OrderType, SalesRollup> daily = new EnumMap<>(Order.OrderType.class);
+        for (Object[] row : orderRepository.aggregateDeliveredByHour(start, end)) {
+            Order.OrderType orderType = (Order.OrderType) row[0];
+            int hour = ((Number) row[1]).intValue();
+            long orders = ((Number) row[2]).longValue();
+            BigDecimal revenue = (BigDecimal) row[3];
+
+            SalesRollup hourly = new SalesRollup(SalesRollup.Granularity.HOUR, start.plusHours(hour), orderType);
+            hourly.setOrderCount(orders);
+            hourly.setRevenue(revenue);
+            rows.add(hourly);
+
+            SalesRollup total = daily.computeIfAbsent(orderType, type -> new SalesRollup(SalesRollup.Granularity.DAY, start, type));
+            total.setOrderCount(total.getOrderCount() + orders);
+            total.setRevenue(total.getRevenue().add(revenue));
+        }
+        rows.addAll(daily.values());
+        salesRollupRepository.saveAll(rows);
+    }
+
+    private void createMissingBuckets(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        Set<String> existing = new HashSet<>();
+        for (SalesRollup.Granularity granularity : SalesRollup.Granularity.values()) {
+            for (SalesRollup rollup : salesRollupRepository.findBuckets(granularity, start, end)) {
+                existing.add(granularity + "|" + rollup.getBucketStart() + "|" + rollup.getOrderType());
+            }
+        }
+        List<SalesRollup> missing = new ArrayList<>();
+        for (SalesRollup.Granularity granularity : SalesRollup.Granularity.values()) {
+            for (LocalDateTime bucket = start; bucket.isBefore(end); bucket = bucket.plus(1, unit(granularity))) {
+                for (Order.OrderType orderType : Order.OrderType.values()) {
+                    if (!existing.contains(granularity + "|" + bucket + "|" + orderType)) {
+                        missing.add(new SalesRollup(granularity, bucket, orderType));
+                    }
+                }
+            }
+        }
+        salesRollupRepository.saveAll(missing);
+    }
+
+    private void record(LocalDateTime placedAt, Order.OrderType orderType, long orders, BigDecimal revenue) {
+        LocalDateTime now = LocalDateTime.now();
+        for (SalesRollup.Granularity granularity : SalesRollup.Granularity.values()) {
+            LocalDateTime bucketStart = bucketStart(granularity, placedAt);
+            if (salesRollupRepository.increment(granularity, bucketStart, orderType, orders, revenue, now) == 0
+                    && !insertBucket(granularity, bucketStart, orderType, orders, revenue, now)) {
+                // A concurrent delivery created the bucket first
+                salesRollupRepository.increment(granularity, bucketStart, orderType, orders, revenue, now);
+            }
+        }
+    }
+
+    // Only reached for buckets prepareBuckets did not cover (e.g. orders placed before it
+    // first ran). Inserted on the caller's own connection under a savepoint, so no second
+    // pooled connection is needed while the order row is locked, and losing the race to a
+    // concurrent delivery only rolls back to the savepoint. Plain JDBC, since a failed JPA
+    // statement would mark the caller's whole transaction rollback-only.
+    private boolean insertBucket(SalesRollup.Granularity granularity, LocalDateTime bucketStart, Order.OrderType orderType,
+                                 long orders, BigDecimal revenue, LocalDateTime now) {
+        try {
+            savepoint.executeWithoutResult(status -> jdbcTemplate.update(INSERT_BUCKET, granularity.name(),
+                    Timestamp.valueOf(bucketStart), orderType.name(), orders, revenue, Timestamp.valueOf(now)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Sales rollup bucket {} {} {} created concurrently", granularity, bucketStart, orderType);
+            return false;
+        }
+    }
+
+    private List<SalesSummary> summarize(SalesRollup.Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        Map<LocalDateTime, SalesSummary> summaries = new LinkedHashMap<>();
+        for (LocalDateTime bucket = from; bucket.isBefore(to); bucket = bucket.plus(1, unit(granularity))) {
+            summaries.put(bucket, new SalesSummary(bucket));
+        }
+        for (SalesRollup rollup : salesRollupRepository.findBuckets(granularity, from, to)) {
+            summaries.get(rollup.getBucketStart()).add(rollup.getOrderType(), rollup.getOrderCount(), rollup.getRevenue());
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    private static LocalDateTime bucketStart(SalesRollup.Granularity granularity, LocalDateTime time) {
+        return time.truncatedTo(unit(granularity));
+    }
+
+    private static ChronoUnit unit(SalesRollup.Granularity granularity) {
+        return granularity == SalesRollup.Granularity.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+    }
+}
@@ -0,0 +1,110 @@
+package com.cozycorner.restaurant.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Skips tracking frames on the client outbound channel that are no longer worth sending.
+ * When a subscriber falls behind, its frames queue up on the channel's executor; by the
+ * time one is handled a newer frame for the same order may already be queued behind it,
+ * or it may be older than {@code app.tracking.max-frame-age-ms}. Either way only the
+ * newest position matters, so the frame is dropped instead of written to the socket.
+ * <p>
+ * The newest queued sequence is kept per session and topic and removed once that frame
+ * has been handled, so the map only ever holds frames still in flight.
+ */
+@Component
+public class TrackingFrameInterceptor implements ExecutorChannelInterceptor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.tracking.max-frame-age-ms:5000}")
+    private long maxFrameAgeMs;
+
+    // "sessionId destination" -> newest sequence queued for it
+    private final Map<String, Long> newestQueued = new ConcurrentHashMap<>();
+    private Counter droppedSuperseded;
+    private Counter droppedStale;
+
+    @PostConstruct
+    void init() {
+        droppedSuperseded = meterRegistry.counter("tracking.frames.dropped", "reason", "superseded");
+        droppedStale = meterRegistry.counter("tracking.frames.dropped", "reason", "stale");
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String key = keyOf(message.getHeaders());
+        Long sequence = key == null ? null : longHeader(message.getHeaders(), DeliveryTrackingPublisher.SEQUENCE_HEADER);
+        if (sequence != null) {
+            newestQueued.merge(key, sequence, Math::max);
+        }
+        return message;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        MessageHeaders headers = message.getHeaders();
+        String key = keyOf(headers);
+        Long sequence = key == null ? null : longHeader(headers, DeliveryTrackingPublisher.SEQUENCE_HEADER);
+        if (sequence == null) {
+            return message;
+        }
+        Long newest = newestQueued.get(key);
+        if (newest != null && sequence < newest) {
+            droppedSuperseded.increment();
+            return null;
+        }
+        newestQueued.remove(key, sequence);
+        Long publishedAt = longHeader(headers, DeliveryTrackingPublisher.PUBLISHED_AT_HEADER);
+        if (publishedAt != null && System.currentTimeMillis() - publishedAt > maxFrameAgeMs) {
+            droppedStale.increment();
+            return null;
+        }
+        return message;
+    }
+
+    // Null unless the message is a frame for one subscriber of a tracking topic
+    private static String keyOf(MessageHeaders headers) {
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (sessionId == null || DeliveryTrackingPublisher.orderIdOf(destination) == null) {
+            return null;
+        }
+        return sessionId + " " + destination;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long longHeader(MessageHeaders headers, String name) {
+        Map<String, List<String>> nativeHeaders = (Map<String, List<String>>) headers.get(NativeMessageHeaderAccessor.NATIVE_HEADERS);
+        List<String> values = nativeHeaders == null ? null : nativeHeaders.get(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(values.get(0));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,32 +1,32 @@
 -- Sample data for CozyCorner Restaurant Platform
 
 -- Insert sample menu items
-INSERT INTO menu_items (name, description, price, category, image_url, is_available, preparation_time, is_vegetarian, is_spicy, calories, created_at, updated_at) VALUES
+INSERT INTO menu_items (id, name, description, price, category, image_url, is_available, preparation_time, is_vegetarian, is_spicy, calories, created_at, updated_at) VALUES
 -- Pizzas
-('Margherita Pizza', 'Classic pizza with tomato sauce, mozzarella cheese, and fresh basil', 12.99, 'PIZZA', '/images/margherita.jpg', true, 15, true, false, 280, NOW(), NOW()),
-('Pepperoni Pizza', 'Traditional pizza topped with pepperoni and mozzarella cheese', 14.99, 'PIZZA', '/images/pepperoni.jpg', true, 15, false, false, 320, NOW(), NOW()),
-('Veggie Supreme', 'Loaded with bell peppers, mushrooms, onions, olives, and tomatoes', 16.99, 'PIZZA', '/images/veggie-supreme.jpg', true, 18, true, false, 290, NOW(), NOW()),
-('Meat Lovers', 'Pepperoni, sausage, bacon, and ham on our signature crust', 18.99, 'PIZZA', '/images/meat-lovers.jpg', true, 20, false, false, 420, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Margherita Pizza', 'Classic pizza with tomato sauce, mozzarella cheese, and fresh basil', 12.99, 'PIZZA', '/images/margherita.jpg', true, 15, true, false, 280, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Pepperoni Pizza', 'Traditional pizza topped with pepperoni and mozzarella cheese', 14.99, 'PIZZA', '/images/pepperoni.jpg', true, 15, false, false, 320, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Veggie Supreme', 'Loaded with bell peppers, mushrooms, onions, olives, and tomatoes', 16.99, 'PIZZA', '/images/veggie-supreme.jpg', true, 18, true, false, 290, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Meat Lovers', 'Pepperoni, sausage, bacon, and ham on our signature crust', 18.99, 'PIZZA', '/images/meat-lovers.jpg', true, 20, false, false, 420, NOW(), NOW()),
 
 -- Burgers
-('Classic Beef Burger', 'Juicy beef patty with lettuce, tomato, onion, and our special sauce', 9.99, 'BURGER', '/images/classic-burger.jpg', true, 12, false, false, 480, NOW(), NOW()),
-('Chicken Deluxe', 'Grilled chicken breast with avocado, bacon, and chipotle mayo', 11.99, 'BURGER', '/images/chicken-deluxe.jpg', true, 15, false, true, 520, NOW(), NOW()),
-('Veggie Burger', 'Plant-based patty with fresh vegetables and tahini sauce', 10.99, 'BURGER', '/images/veggie-burger.jpg', true, 10, true, false, 380, NOW(), NOW()),
-('BBQ Bacon Burger', 'Beef patty with BBQ sauce, crispy bacon, and onion rings', 13.99, 'BURGER', '/images/bbq-bacon.jpg', true, 15, false, false, 580, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Classic Beef Burger', 'Juicy beef patty with lettuce, tomato, onion, and our special sauce', 9.99, 'BURGER', '/images/classic-burger.jpg', true, 12, false, false, 480, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Chicken Deluxe', 'Grilled chicken breast with avocado, bacon, and chipotle mayo', 11.99, 'BURGER', '/images/chicken-deluxe.jpg', true, 15, false, true, 520, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Veggie Burger', 'Plant-based patty with fresh vegetables and tahini sauce', 10.99, 'BURGER', '/images/veggie-burger.jpg', true, 10, true, false, 380, NOW(), NOW()),
+(nextval('menu_items_seq'), 'BBQ Bacon Burger', 'Beef patty with BBQ sauce, crispy bacon, and onion rings', 13.99, 'BURGER', '/images/bbq-bacon.jpg', true, 15, false, false, 580, NOW(), NOW()),
 
 -- Appetizers
-('Buffalo Wings', 'Crispy chicken wings tossed in spicy buffalo sauce', 8.99, 'APPETIZER', '/images/buffalo-wings.jpg', true, 12, false, true, 340, NOW(), NOW()),
-('Mozzarella Sticks', 'Golden fried mozzarella with marinara dipping sauce', 6.99, 'APPETIZER', '/images/mozzarella-sticks.jpg', true, 8, true, false, 280, NOW(), NOW()),
-('Loaded Nachos', 'Tortilla chips with cheese, jalapeños, salsa, and sour cream', 9.99, 'APPETIZER', '/images/loaded-nachos.jpg', true, 10, true, true, 420, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Buffalo Wings', 'Crispy chicken wings tossed in spicy buffalo sauce', 8.99, 'APPETIZER', '/images/buffalo-wings.jpg', true, 12, false, true, 340, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Mozzarella Sticks', 'Golden fried mozzarella with marinara dipping sauce', 6.99, 'APPETIZER', '/images/mozzarella-sticks.jpg', true, 8, true, false, 280, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Loaded Nachos', 'Tortilla chips with cheese, jalapeños, salsa, and sour cream', 9.99, 'APPETIZER', '/images/loaded-nachos.jpg', true, 10, true, true, 420, NOW(), NOW()),
 
 -- Beverages
-('Coca Cola', 'Classic refreshing cola drink', 2.99, 'BEVERAGE', '/images/coca-cola.jpg', true, 2, true, false, 140, NOW(), NOW()),
-('Fresh Orange Juice', 'Freshly squeezed orange juice', 3.99, 'BEVERAGE', '/images/orange-juice.jpg', true, 3, true, false, 110, NOW(), NOW()),
-('Iced Tea', 'Refreshing iced tea with lemon', 2.49, 'BEVERAGE', '/images/iced-tea.jpg', true, 2, true, false, 70, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Coca Cola', 'Classic refreshing cola drink', 2.99, 'BEVERAGE', '/images/coca-cola.jpg', true, 2, true, false, 140, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Fresh Orange Juice', 'Freshly squeezed orange juice', 3.99, 'BEVERAGE', '/images/orange-juice.jpg', true, 3, true, false, 110, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Iced Tea', 'Refreshing iced tea with lemon', 2.49, 'BEVERAGE', '/images/iced-tea.jpg', true, 2, true, false, 70, NOW(), NOW()),
 
 -- Desserts
-('Chocolate Brownie', 'Rich chocolate brownie with vanilla ice cream', 5.99, 'DESSERT', '/images/chocolate-brownie.jpg', true, 5, true, false, 380, NOW(), NOW()),
-('Cheesecake', 'New York style cheesecake with berry compote', 6.99, 'DESSERT', '/images/cheesecake.jpg', true, 3, true, false, 420, NOW(), NOW());
+(nextval('menu_items_seq'), 'Chocolate Brownie', 'Rich chocolate brownie with vanilla ice cream', 5.99, 'DESSERT', '/images/chocolate-brownie.jpg', true, 5, true, false, 380, NOW(), NOW()),
+(nextval('menu_items_seq'), 'Cheesecake', 'New York style cheesecake with berry compote', 6.99, 'DESSERT', '/images/cheesecake.jpg', true, 3, true, false, 420, NOW(), NOW());
 
 -- Insert sample users
 INSERT INTO users (name, email, password, phone_number, address, role, is_active, created_at, updated_at, loyalty_points) VALUES
@@ -0,0 +1,64 @@
+package com.cozycorner.restaurant.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-chance eviction keeps recently read entries, and the size stays bounded however
+ * many threads insert at once.
+ */
+class BoundedCacheTest {
+
+    @Test
+    void entryReadSinceInsertionSurvivesEviction() {
+        List<String> evicted = new ArrayList<>();
+        BoundedCache<String, Integer> cache = new BoundedCache<>(3, (key, value) -> evicted.add(key));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        cache.get("a");
+
+        cache.put("d", 4);
+
+        assertThat(evicted).containsExactly("b");
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    void staysWithinTheLimitUnderConcurrentWriters() throws Exception {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t * 100_000;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 100_000; i++) {
+                        cache.put(offset + i, i);
+                        cache.get(offset + i / 2);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // The writer that finds the eviction lock taken skips eviction, so allow one slot per thread
+        assertThat(cache.size()).isBetween(1, 1000 + 8);
+        cache.put(-1, -1);
+        assertThat(cache.size()).isLessThanOrEqualTo(1000);
+    }
+}
@@ -0,0 +1,58 @@
+package com.cozycorner.restaurant.security;
+
+import com.cozycorner.restaurant.entity.User;
+import com.cozycorner.restaurant.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Repeat lookups are served from the cache, and evicting a user drops the entry even
+ * when it was cached under an email the user no longer has.
+ */
+class CachedUserDetailsServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CachedUserDetailsService service = new CachedUserDetailsService();
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "maxEntries", 100);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 300L);
+        service.init();
+
+        user = new User("Customer", "old@example.com", "secret", User.Role.CUSTOMER);
+        user.setId(7L);
+        when(userRepository.findByEmail("old@example.com")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void repeatLookupsAreCached() {
+        service.loadUserByUsername("old@example.com");
+        service.loadUserByUsername("old@example.com");
+
+        verify(userRepository, times(1)).findByEmail("old@example.com");
+    }
+
+    @Test
+    void evictingAUserDropsTheEntryCachedUnderItsPreviousEmail() {
+        assertThat(service.loadUserByUsername("old@example.com").getPassword()).isEqualTo("secret");
+
+        user.setEmail("new@example.com");
+        user.setPassword("changed");
+        service.evict(user);
+
+        assertThat(service.loadUserByUsername("old@example.com").getPassword()).isEqualTo("changed");
+        verify(userRepository, times(2)).findByEmail("old@example.com");
+    }
+}
@@ -0,0 +1,86 @@
+package com.cozycorner.restaurant.security;
+
+import com.cozycorner.restaurant.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking a request's JWT: the old per-request path (derive the key, build a
+ * parser, verify the signature), a verification with the parser built once (a cache
+ * miss in {@link JwtTokenUtil#verify}), and a repeat of an already verified token.
+ * <p>
+ * Run with {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.cozycorner.restaurant.security.JwtTokenUtilBenchmark},
+ * or straight from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenUtilBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyThatIsLongEnoughForTheHS512AlgorithmToBeSelected";
+
+    private JwtTokenUtil jwtTokenUtil;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtTokenUtil, "verifiedCacheSize", 10_000);
+        jwtTokenUtil.init();
+        parser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build();
+        token = jwtTokenUtil.generateTokenWithAuthorities(new User("Customer", "customer@example.com", "secret", User.Role.CUSTOMER));
+        jwtTokenUtil.verify(token);
+    }
+
+    @Benchmark
+    public Claims parsePerRequest() {
+        return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims parseWithCachedParser() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return jwtTokenUtil.verify(token);
+    }
+
+    // The cache is shared by every request thread
+    @Benchmark
+    @Threads(4)
+    public VerifiedToken verifyCachedContended() {
+        return jwtTokenUtil.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtTokenUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
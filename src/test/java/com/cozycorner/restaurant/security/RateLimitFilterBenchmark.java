@@ -0,0 +1,116 @@
+package com.cozycorner.restaurant.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency the rate limiter adds to a request: a returning client, a stream of clients
+ * the filter has not seen before (with the bucket map below and at its cap), and a
+ * returning client on several threads at once. The limit is set high enough that no
+ * request is rejected, so only the check itself is measured.
+ * <p>
+ * Run with {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.cozycorner.restaurant.security.RateLimitFilterBenchmark},
+ * or straight from the IDE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final int DISTINCT_CLIENTS = 1 << 16;
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    @State(Scope.Benchmark)
+    public static class Filter {
+
+        // Below and at the cap for DISTINCT_CLIENTS
+        @Param({"100000", "1000"})
+        public int maxBuckets;
+
+        RateLimitFilter filter;
+
+        @Setup
+        public void setUp() {
+            filter = new RateLimitFilter();
+            ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+            ReflectionTestUtils.setField(filter, "enabled", true);
+            ReflectionTestUtils.setField(filter, "ruleSpecs", List.of("/auth/**=20/1m", "/menu/**=1000000000/1s"));
+            ReflectionTestUtils.setField(filter, "maxBuckets", maxBuckets);
+            filter.init();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+
+        MockHttpServletRequest returning;
+        MockHttpServletRequest[] distinct;
+        MockHttpServletResponse response;
+        int next;
+
+        @Setup
+        public void setUp() {
+            returning = request("10.0.0.1");
+            distinct = new MockHttpServletRequest[DISTINCT_CLIENTS];
+            for (int i = 0; i < DISTINCT_CLIENTS; i++) {
+                distinct[i] = request("10.1." + (i >>> 8) + "." + (i & 0xff));
+            }
+            response = new MockHttpServletResponse();
+        }
+
+        private static MockHttpServletRequest request(String remoteAddr) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/menu/items");
+            request.setServletPath("/menu/items");
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        }
+    }
+
+    @Benchmark
+    public int returningClient(Filter filter, Requests requests) throws Exception {
+        filter.filter.doFilter(requests.returning, requests.response, CHAIN);
+        return requests.response.getStatus();
+    }
+
+    @Benchmark
+    public int newClients(Filter filter, Requests requests) throws Exception {
+        MockHttpServletRequest request = requests.distinct[requests.next++ & (DISTINCT_CLIENTS - 1)];
+        filter.filter.doFilter(request, requests.response, CHAIN);
+        return requests.response.getStatus();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int returningClientContended(Filter filter, Requests requests) throws Exception {
+        filter.filter.doFilter(requests.returning, requests.response, CHAIN);
+        return requests.response.getStatus();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RateLimitFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
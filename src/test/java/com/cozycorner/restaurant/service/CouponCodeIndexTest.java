@@ -0,0 +1,92 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.entity.Coupon;
+import com.cozycorner.restaurant.repository.CouponRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Coupons saved through JPA reach the index only once their transaction commits, and
+ * bulk merges and reloads keep the changes recorded since.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+@Import({CouponCodeIndex.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CouponCodeIndexTest {
+
+    @Autowired
+    private CouponCodeIndex couponCodeIndex;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        couponCodeIndex.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        couponRepository.deleteAll();
+    }
+
+    @Test
+    void rolledBackSaveIsNotIndexed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            couponRepository.saveAndFlush(coupon("ROLLEDBACK1"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(couponCodeIndex.find("ROLLEDBACK1")).isNull();
+    }
+
+    @Test
+    void committedChangesAreIndexedAndSurviveBulkMergesAndReloads() {
+        Coupon saved = transactionTemplate.execute(status -> couponRepository.saveAndFlush(coupon("SAVED1")));
+        assertThat(couponCodeIndex.find("SAVED1")).isNotNull()
+                .extracting(CouponCodeIndex.Match::getCouponId).isEqualTo(saved.getId());
+
+        couponCodeIndex.addAll(List.of(new CouponCodeIndex.Entry("BULK1", 1_000_000L,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1))));
+        assertThat(couponCodeIndex.find("SAVED1")).isNotNull();
+        assertThat(couponCodeIndex.find("BULK1")).isNotNull();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Coupon coupon = couponRepository.findById(saved.getId()).orElseThrow();
+            coupon.setIsActive(false);
+        });
+        assertThat(couponCodeIndex.find("SAVED1")).isNull();
+
+        couponCodeIndex.reload();
+        assertThat(couponCodeIndex.find("SAVED1")).isNull();
+    }
+
+    private static Coupon coupon(String code) {
+        return new Coupon(code, Coupon.DiscountType.PERCENTAGE, new BigDecimal("10"),
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(30));
+    }
+}
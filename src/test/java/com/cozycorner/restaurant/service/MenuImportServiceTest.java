@@ -0,0 +1,80 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.BulkImportResult;
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.repository.MenuItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A row the database rejects (one that passes bean validation but not the schema) must be
+ * reported on its own, while the rest of its chunk and the chunks around it are imported.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never",
+        "app.menu.import.batch-size=4"
+})
+@Import({MenuImportService.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuImportServiceTest {
+
+    private static final int ROWS = 10;
+    private static final int REJECTED_ROW = 6;
+
+    @Autowired
+    private MenuImportService menuImportService;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @MockBean
+    private MenuCacheService menuCacheService;
+
+    @AfterEach
+    void tearDown() {
+        menuItemRepository.deleteAll();
+    }
+
+    @Test
+    void rowRejectedByDatabaseIsReportedAndTheRestIsImported() throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (int row = 1; row <= ROWS; row++) {
+            // image_url is a VARCHAR(255) the entity does not validate
+            String imageUrl = row == REJECTED_ROW ? "/img/" + "x".repeat(300) : "/img/" + row + ".png";
+            rows.add("{\"name\": \"Item " + row + "\", \"price\": 9.50, \"category\": \"PIZZA\", \"imageUrl\": \"" + imageUrl + "\"}");
+        }
+
+        BulkImportResult result = menuImportService.importJson(
+                new ByteArrayInputStream(("[" + String.join(",", rows) + "]").getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getReceived()).isEqualTo(ROWS);
+        assertThat(result.getInserted()).isEqualTo(ROWS - 1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(REJECTED_ROW);
+            assertThat(error.getMessage()).startsWith("Rejected by database: ");
+        });
+        assertThat(menuItemRepository.findAll()).extracting(MenuItem::getName)
+                .hasSize(ROWS - 1)
+                .doesNotContain("Item " + REJECTED_ROW);
+    }
+}
@@ -0,0 +1,99 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.dto.KeysetPage;
+import com.cozycorner.restaurant.dto.OrderSummary;
+import com.cozycorner.restaurant.entity.MenuItem;
+import com.cozycorner.restaurant.entity.Order;
+import com.cozycorner.restaurant.entity.OrderItem;
+import com.cozycorner.restaurant.entity.User;
+import com.cozycorner.restaurant.repository.OrderArchiveRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * The order list views must cost one query for the orders and one for their line items,
+ * however many orders, items, payments and deliveries are involved.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+@Import(OrderQueryService.class)
+class OrderQueryServiceTest {
+
+    private static final int ORDERS = 20;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private OrderArchiveRepository orderArchiveRepository;
+
+    private Statistics statistics;
+    private User customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = entityManager.persist(new User("Customer", "customer@example.com", "secret", User.Role.CUSTOMER));
+        MenuItem[] menuItems = new MenuItem[ITEMS_PER_ORDER];
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            menuItems[i] = entityManager.persist(new MenuItem("Item " + i, null, new BigDecimal("9.50"), MenuItem.Category.PIZZA));
+        }
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order(customer, new BigDecimal("28.50"), "1 Main Street");
+            for (MenuItem menuItem : menuItems) {
+                order.getOrderItems().add(new OrderItem(order, menuItem, 1, menuItem.getPrice(), null));
+            }
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        when(orderArchiveRepository.findCustomerOrderSummaries(anyLong(), any(), any(), anyInt())).thenReturn(List.of());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pendingOrdersTakeTwoStatements() {
+        List<OrderSummary> orders = orderQueryService.findPendingOrders();
+
+        assertThat(orders).hasSize(ORDERS);
+        assertThat(orders).allSatisfy(order -> assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void customerHistoryPageTakesTwoStatements() {
+        KeysetPage<OrderSummary> page = orderQueryService.findCustomerOrderHistory(customer.getId(), null, ORDERS);
+
+        assertThat(page.getItems()).hasSize(ORDERS);
+        assertThat(page.getItems()).allSatisfy(order -> assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,152 @@
+package com.cozycorner.restaurant.service;
+
+import com.cozycorner.restaurant.entity.Order;
+import com.cozycorner.restaurant.entity.User;
+import com.cozycorner.restaurant.event.OrderStatusChangedEvent;
+import com.cozycorner.restaurant.repository.OrderRepository;
+import com.cozycorner.restaurant.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Races many writers at one order to check that the conditional status UPDATE lets
+ * exactly one of them through per transition, and that the losers neither fail nor
+ * apply the transition a second time.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+@Import({OrderService.class, OrderTransitionConcurrencyTest.EventCounter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderTransitionConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private static final Order.OrderStatus[] CHAIN = {
+            Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING,
+            Order.OrderStatus.READY, Order.OrderStatus.OUT_FOR_DELIVERY, Order.OrderStatus.DELIVERED
+    };
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EventCounter eventCounter;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+    private Long orderId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newFixedThreadPool(THREADS);
+        eventCounter.transitions.clear();
+        orderId = transactionTemplate.execute(status -> {
+            User customer = userRepository.save(new User("Customer", "customer-" + System.nanoTime() + "@example.com",
+                    "secret", User.Role.CUSTOMER));
+            return orderRepository.save(new Order(customer, new BigDecimal("20.00"), "1 Main Street")).getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void exactlyOneConditionalUpdateWinsPerTransition() throws Exception {
+        for (int step = 1; step < CHAIN.length - 1; step++) {
+            Order.OrderStatus from = CHAIN[step - 1];
+            Order.OrderStatus to = CHAIN[step];
+            List<Integer> results = race(() -> transactionTemplate.execute(status ->
+                    orderRepository.transitionStatus(orderId, from, to, LocalDateTime.now())));
+
+            assertThat(results.stream().mapToInt(Integer::intValue).sum()).as("winners of %s -> %s", from, to).isEqualTo(1);
+            Order order = orderRepository.findById(orderId).orElseThrow();
+            assertThat(order.getStatus()).isEqualTo(to);
+            assertThat(order.getVersion()).isEqualTo((long) step);
+        }
+    }
+
+    @Test
+    void concurrentStatusUpdatesApplyEachTransitionOnce() throws Exception {
+        for (int step = 1; step < CHAIN.length; step++) {
+            Order.OrderStatus to = CHAIN[step];
+            List<Order.OrderStatus> results = race(() -> orderService.updateStatus(orderId, to).getStatus());
+
+            // Losers re-read the order and find it already moved, which is a no-op rather than a conflict
+            assertThat(results).containsOnly(to);
+            assertThat(eventCounter.transitions.get(to)).as("events for %s", to).hasValue(1);
+        }
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        assertThat(order.getStatus()).isEqualTo(Order.OrderStatus.DELIVERED);
+        assertThat(order.getVersion()).isEqualTo(CHAIN.length - 1L);
+        assertThat(order.getActualDeliveryTime()).isNotNull();
+    }
+
+    // Starts every call at once and waits for all of them
+    private <T> List<T> race(Callable<T> call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    @Component
+    static class EventCounter {
+
+        private final Map<Order.OrderStatus, AtomicInteger> transitions = new ConcurrentHashMap<>();
+
+        @EventListener
+        public void onStatusChanged(OrderStatusChangedEvent event) {
+            transitions.computeIfAbsent(event.getOrder().getStatus(), status -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+}